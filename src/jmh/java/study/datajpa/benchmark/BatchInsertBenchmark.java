@@ -0,0 +1,70 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 새 회원 1만건 저장 (매번 롤백해서 데이터를 유지)
+ *  - saveAll       : 영속성 컨텍스트에 전부 쌓아두고 커밋 시점에 flush
+ *  - saveAllInBatch: batch_size 마다 flush + 저장한 회원 detach
+ * 저장할 때마다 새 엔티티가 필요하기 때문에 회원 생성은 @Setup(Level.Invocation)에서 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+    private static final int MEMBER_COUNT = 10_000;
+
+    @Param({"saveAll", "saveAllInBatch"})
+    private String method;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @Setup(Level.Invocation)
+    public void createMembers() {
+        members = new ArrayList<>(MEMBER_COUNT);
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            members.add(new Member("batch" + i, i % 100));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void save() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (method.equals("saveAll")) {
+                memberRepository.saveAll(members);
+                memberRepository.flush(); //? 롤백하면 flush 되지 않기 때문에 insert까지 포함하도록 직접 flush
+            } else {
+                memberRepository.saveAllInBatch(members);
+            }
+            status.setRollbackOnly();
+        });
+    }
+}
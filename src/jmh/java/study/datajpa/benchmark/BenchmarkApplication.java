@@ -0,0 +1,30 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+/**
+ * 벤치마크용 애플리케이션 실행
+ * 웹 서버 없이 JPA 계층만 띄우고, DB는 임베디드 H2(메모리)를 사용한다.
+ * 측정값이 로그 출력에 묻히지 않도록 SQL 로그와 p6spy 로그는 끈다.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "decorator.datasource.p6spy.enable-logging=false",
+                        "datajpa.nplusone.mode=off"
+                )
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,64 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Item;
+import study.datajpa.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이미 저장된 Item 10만건을 다시 저장
+ *  - saveAll   : isNew() == false => em.merge() - 행마다 select
+ *  - upsertAll : MERGE 문 JDBC 배치 (select 없음)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ItemUpsertBenchmark {
+
+    private static final int ITEM_COUNT = 100_000;
+
+    @Param({"saveAll", "upsertAll"})
+    private String method;
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Item> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        itemRepository = context.getBean(ItemRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        items = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(new Item("item" + i));
+        }
+        //? 처음 저장하면서 등록일이 채워진다. => 이후 save()에서는 새 엔티티가 아니므로 merge
+        itemRepository.upsertAll(items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object upsert() {
+        if (method.equals("saveAll")) {
+            //? 영속성 컨텍스트에 10만건이 쌓이는 비용까지 포함 (saveAll을 그대로 쓸 때의 비용)
+            return transactionTemplate.execute(status -> itemRepository.saveAll(items).size());
+        }
+        return itemRepository.upsertAll(items);
+    }
+}
@@ -0,0 +1,95 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.OptimisticRetryExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시 수정 처리량 비교 - 64 스레드가 회원 나이를 1씩 올린다.
+ *  - strategy
+ *    - pessimistic: findLockByUsername(select ... for update) 후 수정 - 같은 행이면 커밋까지 대기
+ *    - optimistic : @Version + OptimisticRetryExecutor - 충돌하면 백오프 후 다시 실행
+ *  - target
+ *    - same     : 모든 스레드가 같은 회원 수정 (충돌 최대)
+ *    - different: 스레드마다 다른 회원 수정 (충돌 없음)
+ *
+ * 충돌이 없으면 optimistic이 락 대기 없이 더 빠르고, 같은 행에 몰리면 재시도 비용 때문에 pessimistic이 유리할 수 있다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(LockContentionBenchmark.THREADS)
+public class LockContentionBenchmark {
+
+    static final int THREADS = 64;
+
+    @Param({"pessimistic", "optimistic"})
+    private String strategy;
+
+    @Param({"same", "different"})
+    private String target;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transactionTemplate;
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+    private final AtomicInteger threadIndex = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class ThreadTarget {
+        String username;
+
+        @Setup(Level.Trial)
+        public void setUp(LockContentionBenchmark benchmark) {
+            int index = benchmark.threadIndex.getAndIncrement() % THREADS;
+            username = benchmark.target.equals("same") ? "lock0" : "lock" + index;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        //? 64 스레드가 커넥션을 기다리느라 측정이 왜곡되지 않도록 풀 크기를 스레드 수에 맞춘다.
+        context = BenchmarkApplication.start(
+                "spring.datasource.hikari.maximum-pool-size=" + THREADS,
+                "datajpa.optimistic-retry.max-attempts=100");
+        memberRepository = context.getBean(MemberRepository.class);
+        optimisticRetryExecutor = context.getBean(OptimisticRetryExecutor.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            members.add(new Member("lock" + i, 0));
+        }
+        memberRepository.saveAll(members);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer increaseAge(ThreadTarget thread) {
+        if (strategy.equals("pessimistic")) {
+            return transactionTemplate.execute(status -> increase(memberRepository.findLockByUsername(thread.username)));
+        }
+        return optimisticRetryExecutor.execute(status -> increase(memberRepository.findMemberByUsername(thread.username)));
+    }
+
+    private static Integer increase(Member member) {
+        member.setAge(member.getAge() + 1);
+        return member.getAge();
+    }
+}
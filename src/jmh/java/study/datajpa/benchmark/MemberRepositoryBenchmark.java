@@ -0,0 +1,131 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 레포지토리 주요 경로 성능 측정
+ *  - findById
+ *  - username 조회: 메소드 이름 쿼리 vs @NamedQuery(Member.findByUsername2) vs 순수 JPA(MemberJpaRepository)
+ *  - DTO 생성자 프로젝션(findMemberDto) vs 엔티티 조회(findMemberFetchJoin)
+ *  - findByAge 페이징
+ *  - bulkAgePlus (매번 롤백해서 데이터를 유지)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MemberRepositoryBenchmark {
+
+    private static final int MEMBER_COUNT = 1_000;
+    private static final int TEAM_COUNT = 10;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberJpaRepository memberJpaRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> memberIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        memberIds = transactionTemplate.execute(status -> {
+            List<Team> teams = new ArrayList<>();
+            for (int i = 0; i < TEAM_COUNT; i++) {
+                teams.add(teamRepository.save(new Team("team" + i)));
+            }
+
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                members.add(new Member("member" + i, i % 100, teams.get(i % TEAM_COUNT)));
+            }
+            memberRepository.saveAllInBatch(members);
+            return members.stream().map(Member::getId).toList();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object findById() {
+        return memberRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public Object findByUsernameDerived() {
+        return memberRepository.findListByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public Object findByUsernameNamedQuery() {
+        return memberRepository.findByUsername2(randomUsername());
+    }
+
+    @Benchmark
+    public Object findByUsernamePureJpa() {
+        return memberJpaRepository.findByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public Object findMemberDto() {
+        return memberRepository.findMemberDto();
+    }
+
+    @Benchmark
+    public void findMemberEntity(Blackhole blackhole) {
+        //? DTO와 같은 정보를 엔티티로 조회 - 영속성 컨텍스트 관리 비용 포함
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Member member : memberRepository.findMemberFetchJoin()) {
+                blackhole.consume(member.getTeam().getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public Object findByAgePaging() {
+        int age = ThreadLocalRandom.current().nextInt(100);
+        return memberRepository.findByAge(age, PageRequest.of(0, 10, Sort.by("username")));
+    }
+
+    @Benchmark
+    public Integer bulkAgePlus() {
+        return transactionTemplate.execute(status -> {
+            int count = memberRepository.bulkAgePlus(50);
+            status.setRollbackOnly();
+            return count;
+        });
+    }
+
+    private Long randomId() {
+        return memberIds.get(ThreadLocalRandom.current().nextInt(memberIds.size()));
+    }
+
+    private String randomUsername() {
+        return "member" + ThreadLocalRandom.current().nextInt(MEMBER_COUNT);
+    }
+}
@@ -0,0 +1,105 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.NestedClosedProjections;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.UsernameOnly;
+import study.datajpa.repository.UsernameOnlyDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로젝션 100만건 변환 비교
+ *  - springData: findProjectionsByUsername(username, type) - 스프링 데이터 프로젝션(프록시/리플렉션)
+ *  - compiled  : findProjectedByUsername(username, type) - 미리 만든 매퍼(ProjectionMapperRegistry)
+ * 결과 리스트의 모든 값을 읽어서 지연 계산(프록시 getter)까지 포함해 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProjectionBenchmark {
+
+    private static final int MEMBER_COUNT = 1_000_000;
+    private static final int TEAM_COUNT = 10;
+    private static final int CHUNK = 100_000;
+    private static final String USERNAME = "projection";
+
+    @Param({"UsernameOnly", "NestedClosedProjections", "UsernameOnlyDto"})
+    public String projection;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transactionTemplate;
+    private Class<?> type;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < TEAM_COUNT; i++) {
+            teams.add(teamRepository.save(new Team("team" + i)));
+        }
+        for (int start = 0; start < MEMBER_COUNT; start += CHUNK) {
+            int from = start;
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                List<Member> members = new ArrayList<>();
+                for (int i = from; i < from + CHUNK; i++) {
+                    members.add(new Member(USERNAME, i % 100, teams.get(i % TEAM_COUNT)));
+                }
+                memberRepository.saveAllInBatch(members);
+            });
+        }
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        type = switch (projection) {
+            case "UsernameOnly" -> UsernameOnly.class;
+            case "NestedClosedProjections" -> NestedClosedProjections.class;
+            default -> UsernameOnlyDto.class;
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long springData() {
+        return transactionTemplate.execute(status -> consume(memberRepository.findProjectionsByUsername(USERNAME, type)));
+    }
+
+    @Benchmark
+    public long compiled() {
+        return transactionTemplate.execute(status -> consume(memberRepository.findProjectedByUsername(USERNAME, type)));
+    }
+
+    private static long consume(List<?> results) {
+        long hash = 0;
+        for (Object result : results) {
+            if (result instanceof UsernameOnly usernameOnly) {
+                hash += usernameOnly.getUsername().length();
+            } else if (result instanceof NestedClosedProjections nested) {
+                hash += nested.getUsername().length() + nested.getTeam().getName().length();
+            } else if (result instanceof UsernameOnlyDto dto) {
+                hash += dto.getUsername().length();
+            }
+        }
+        return hash;
+    }
+}
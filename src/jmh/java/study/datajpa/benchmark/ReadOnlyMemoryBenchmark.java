@@ -0,0 +1,81 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 읽기 전용 트랜잭션의 메모리 절감 측정
+ * 회원 100,000명을 한 트랜잭션에서 조회한 뒤 GC 후에도 남아있는 힙 크기(retainedBytes)를 비교한다.
+ *  - readOnly=false: 엔티티 + 변경감지용 스냅샷
+ *  - readOnly=true : 엔티티만 (스냅샷 없음)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ReadOnlyMemoryBenchmark {
+
+    private static final int MEMBER_COUNT = 100_000;
+
+    @Param({"false", "true"})
+    public boolean readOnly;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Heap {
+        public long retainedBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                members.add(new Member("member" + i, i % 100));
+            }
+            memberRepository.saveAllInBatch(members);
+        });
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int loadAll(Heap heap) {
+        return transactionTemplate.execute(status -> {
+            long before = usedHeap();
+            List<Member> members = memberRepository.findMemberCustom();
+            heap.retainedBytes = usedHeap() - before; // 영속성 컨텍스트가 members를 잡고 있는 상태에서 측정
+            return members.size();
+        });
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
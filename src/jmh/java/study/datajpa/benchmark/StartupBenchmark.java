@@ -0,0 +1,62 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 애플리케이션 시작 + 첫 요청(회원 페이징 조회) 응답까지 걸린 시간
+ *  - default   : ddl-auto create - 매번 스키마 삭제/생성
+ *  - fast-start: Flyway(처음 한번만 적용) + validate + 레포지토리 지연(deferred) 초기화
+ *
+ * 반복마다 새 JVM(fork)에서 실행해야 클래스 로딩/JIT 전 상태의 시작 시간을 잴 수 있다.
+ * DB는 프로필별 파일 H2 - fast-start는 첫 fork에서만 스크립트를 적용하고 이후에는 검증만 한다.
+ *
+ * AOT/CDS 효과는 JMH 클래스패스로는 측정할 수 없어서 jar로 실행해서 비교한다. (application-fast-start.yml 참고)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(5)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmark {
+
+    @Param({"default", "fast-start"})
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .profiles(profile)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:file:./build/startup-benchmark/" + profile + ";AUTO_SERVER=TRUE",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "decorator.datasource.p6spy.enable-logging=false"
+                )
+                .run();
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members?size=1")).build(),
+                HttpResponse.BodyHandlers.discarding());
+        return response.statusCode();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+}
@@ -2,40 +2,35 @@ package study.datajpa;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.data.domain.AuditorAware;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
-
-import java.util.Optional;
-import java.util.UUID;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 /**
  * @EnableJpaAuditing:
  * JPA Auditing 활성화 - 순수 JPA, Spring Data JPA 모두 사용
  * 생성시 수정관련 정보를 null로 두고 싶다면 (modifyOnCreate = false) 옵션을 사용
+ *
+ * 등록자/수정자: TransactionScopedAuditor - 트랜잭션마다 한번만 조회
+ * 등록일/수정일: AuditClock - flush 단위로 같은 시각 사용
+ */
+@EnableJpaAuditing(auditorAwareRef = "transactionScopedAuditor", dateTimeProviderRef = "auditClock")
+//? 페이징 total count 캐시(memberCount) - @Cacheable, @CacheEvict 사용
+@EnableCaching
+/**
+ * @EnableAsync: 레포지토리의 @Async 메소드를 별도 스레드에서 실행
+ * 실행기는 스프링 부트의 applicationTaskExecutor 사용
+ *  => Java 21 + spring.threads.virtual.enabled=true 이면 가상 스레드, Java 17이면 스레드 풀(spring.task.execution.pool)
  */
-@EnableJpaAuditing
+@EnableAsync
+//? 커넥션 모니터링(ConnectionUsageTracker, AdaptivePoolSizer)의 주기 작업
+@EnableScheduling
 public class DataJpaApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(DataJpaApplication.class, args);
     }
 
-    @Bean
-    public AuditorAware<String> auditorProvider() {
-//        return new AuditorAware<String>() {
-//            @Override
-//            public Optional<String> getCurrentAuditor() {
-//                return Optional.empty();
-//            }
-//        }; // 람다식으로 변경 => 메소드가 하나면 이런식으로 작성이 가능.
-        /**
-         * 지금은 예제이기 떄문에 랜덤한 값을 넣고 있음
-         * 실무에서는 SecurityContextHolder.getContext() ... 을 사용해서
-         * 로그인한 유저 정보를 가져와 사용하면 됨
-         */
-        return () -> Optional.of(UUID.randomUUID().toString());
-    }
-
 }
@@ -0,0 +1,90 @@
+package study.datajpa.audit;
+
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+/**
+ * 등록일/수정일(@CreatedDate, @LastModifiedDate, JpaBaseEntity)에 쓰는 시각
+ *
+ * 트랜잭션 안에서는 시각을 한번 구해서 flush가 끝날 때까지 모든 엔티티에 같은 값을 넣는다.
+ *  - 같이 저장/수정된 엔티티들의 시각이 일치한다. (한 flush = 한번에 반영된 변경)
+ *  - 엔티티마다 LocalDateTime.now()를 호출하지 않는다.
+ * flush가 끝나면 AuditFlushListener가 reset()을 호출해서 다음 flush는 새 시각을 사용한다.
+ * REQUIRES_NEW 등으로 트랜잭션이 보류(suspend)되면 잡아둔 시각도 같이 보류해서 안쪽 트랜잭션은 자기 시각을 사용한다.
+ *
+ * 트랜잭션 밖이면 매번 현재 시각
+ */
+@Component
+public class AuditClock implements DateTimeProvider {
+
+    private static final Object RESOURCE_KEY = AuditClock.class;
+    private static volatile Clock clock = Clock.systemDefaultZone();
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(now());
+    }
+
+    //* 엔티티 콜백(@PrePersist 등)처럼 빈을 주입받을 수 없는 곳에서 사용
+    public static LocalDateTime now() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return LocalDateTime.now(clock);
+        }
+
+        FlushTime flushTime = (FlushTime) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (flushTime == null) {
+            flushTime = bind();
+        }
+        if (flushTime.now == null) {
+            flushTime.now = LocalDateTime.now(clock);
+        }
+        return flushTime.now;
+    }
+
+    private static FlushTime bind() {
+        FlushTime flushTime = new FlushTime();
+        TransactionSynchronizationManager.bindResource(RESOURCE_KEY, flushTime);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(RESOURCE_KEY, flushTime);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+            }
+        });
+        return flushTime;
+    }
+
+    //* 다음 호출에서 새 시각을 구하도록
+    static void reset() {
+        if (TransactionSynchronizationManager.getResource(RESOURCE_KEY) instanceof FlushTime flushTime) {
+            flushTime.now = null;
+        }
+    }
+
+    //? 테스트에서 시각을 고정/조절할 때 사용 (이전 Clock 반환)
+    static Clock useClock(Clock newClock) {
+        Clock previous = clock;
+        clock = newClock;
+        return previous;
+    }
+
+    private static final class FlushTime {
+        private LocalDateTime now;
+    }
+}
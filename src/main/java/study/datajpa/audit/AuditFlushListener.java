@@ -0,0 +1,15 @@
+package study.datajpa.audit;
+
+import org.hibernate.engine.spi.SessionEventListener;
+
+/**
+ * 하이버네이트 세션 이벤트 - flush가 끝나면 AuditClock이 잡아둔 시각을 비운다.
+ * hibernate.session.events.auto 설정으로 세션마다 생성된다. (application.yml)
+ */
+public class AuditFlushListener implements SessionEventListener {
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        AuditClock.reset();
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.audit;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UUID.randomUUID()는 SecureRandom을 사용한다.
+ * 스레드들이 같은 SecureRandom을 공유하기 때문에 대량 저장(saveAll)처럼 자주 호출하면 경합이 생긴다.
+ *
+ * 감사(Auditing) 예제용 식별자는 암호학적으로 안전할 필요가 없기 때문에
+ * 스레드마다 따로 있는 ThreadLocalRandom으로 같은 형식(버전 4)의 UUID를 만든다.
+ * ! 토큰, 비밀번호 재설정 링크처럼 추측되면 안되는 값에는 사용하면 안된다.
+ */
+public final class AuditIds {
+
+    private AuditIds() {
+    }
+
+    public static UUID randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L; // version 4
+        long lsb = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48); // variant (IETF)
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,59 @@
+package study.datajpa.audit;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * 등록자/수정자(@CreatedBy, @LastModifiedBy)를 트랜잭션마다 한번만 구한다.
+ * AuditingEntityListener는 엔티티마다 getCurrentAuditor()를 호출하기 때문에
+ * saveAll로 5만건을 저장하면 5만번 조회하게 된다. => 트랜잭션 리소스로 묶어두고 재사용
+ * 트랜잭션이 보류(suspend)되면 같이 보류해서 REQUIRES_NEW 트랜잭션은 자기 등록자를 구한다.
+ *
+ * 지금은 예제이기 때문에 랜덤한 값(AuditIds)을 넣고 있음
+ * 실무에서는 resolveAuditor()에서 SecurityContextHolder.getContext() ... 로 로그인한 유저 정보를 가져와 사용하면 됨
+ */
+@Component
+public class TransactionScopedAuditor implements AuditorAware<String> {
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.of(resolveAuditor());
+        }
+
+        String auditor = (String) TransactionSynchronizationManager.getResource(this);
+        if (auditor == null) {
+            auditor = resolveAuditor();
+            bind(auditor);
+        }
+        return Optional.of(auditor);
+    }
+
+    private void bind(String auditor) {
+        TransactionSynchronizationManager.bindResource(this, auditor);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScopedAuditor.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(TransactionScopedAuditor.this, auditor);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScopedAuditor.this);
+            }
+        });
+    }
+
+    private String resolveAuditor() {
+        return AuditIds.randomUuid().toString();
+    }
+}
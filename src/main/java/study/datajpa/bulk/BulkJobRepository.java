@@ -0,0 +1,7 @@
+package study.datajpa.bulk;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import study.datajpa.entity.BulkJob;
+
+public interface BulkJobRepository extends JpaRepository<BulkJob, String> {
+}
@@ -0,0 +1,103 @@
+package study.datajpa.bulk;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 청크로 나눠 실행할 JPQL update/delete
+ * ex) BulkMutation.of("update Member m set m.age = m.age + 1 where m.age >= :age").param("age", 20)
+ *
+ * 엔티티 별칭이 필요하다. (식별자 조건을 붙이기 위해) - 식별자는 숫자 타입만 지원
+ */
+@Getter
+public class BulkMutation {
+
+    private static final Pattern STATEMENT = Pattern.compile(
+            "^\\s*(update(?:\\s+versioned)?|delete\\s+from)\\s+(\\w+)\\s+(?:as\\s+)?(\\w+)(\\s+set\\s+.+?)?(?:\\s+where\\s+(.+?))?\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final String statement;
+    private final boolean delete;
+    private final boolean versioned;
+    private final String entityName;
+    private final String alias;
+    private final String setClause;
+    private final String where;
+    private final Map<String, Object> params = new LinkedHashMap<>();
+
+    private Integer chunkSize;
+
+    private BulkMutation(String statement, Matcher matcher) {
+        this.statement = statement;
+        this.delete = matcher.group(1).toLowerCase().startsWith("delete");
+        this.versioned = matcher.group(1).toLowerCase().endsWith("versioned");
+        this.entityName = matcher.group(2);
+        this.alias = matcher.group(3);
+        this.setClause = matcher.group(4) == null ? "" : matcher.group(4);
+        this.where = matcher.group(5);
+    }
+
+    public static BulkMutation of(String statement) {
+        Matcher matcher = STATEMENT.matcher(statement);
+        if (!matcher.matches() || (matcher.group(4) == null) == matcher.group(1).toLowerCase().startsWith("update")) {
+            throw new IllegalArgumentException("별칭이 있는 JPQL update/delete만 지원합니다: " + statement);
+        }
+        if (matcher.group(3).equalsIgnoreCase("set") || matcher.group(3).equalsIgnoreCase("where")) {
+            throw new IllegalArgumentException("엔티티 별칭이 필요합니다: " + statement);
+        }
+        return new BulkMutation(statement, matcher);
+    }
+
+    public BulkMutation param(String name, Object value) {
+        params.put(name, value);
+        return this;
+    }
+
+    //* 설정(datajpa.bulk.chunk-size) 대신 이 작업에서만 사용할 청크 크기
+    public BulkMutation chunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    //* 바인딩 파라미터 해시(SHA-256) - 이름 순으로 정렬해서 param() 호출 순서와 상관없이 같은 값
+    String paramsHash() {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(new TreeMap<>(params).toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //* 다음 청크 대상 식별자 조회
+    String selectIds(String idAttribute) {
+        return "select " + alias + "." + idAttribute + " from " + entityName + " " + alias +
+                " where " + condition() + alias + "." + idAttribute + " > :bulkLastId" +
+                " order by " + alias + "." + idAttribute;
+    }
+
+    /**
+     * 조회한 식별자만 수정/삭제 - 원래 조건도 다시 확인 (조회와 수정 사이에 바뀐 행 제외)
+     * @param versionedEntity @Version이 있는 엔티티면 versioned를 붙여서 버전도 올린다. (낙관적 락 충돌 감지)
+     */
+    String mutateIds(String idAttribute, boolean versionedEntity) {
+        String head = delete
+                ? "delete from " + entityName + " " + alias
+                : (versioned || versionedEntity ? "update versioned " : "update ") + entityName + " " + alias + setClause;
+        return head + " where " + condition() + alias + "." + idAttribute + " in :bulkIds";
+    }
+
+    private String condition() {
+        return where == null ? "" : "(" + where + ") and ";
+    }
+}
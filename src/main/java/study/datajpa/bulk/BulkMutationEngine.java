@@ -0,0 +1,183 @@
+package study.datajpa.bulk;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.BulkJob;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberCountCache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 벌크 수정/삭제를 식별자 구간(청크) 단위로 나눠서 실행
+ *
+ * bulkAgePlus 처럼 update 한번으로 전체를 수정하면
+ *  - 수정 대상 전체에 락이 끝까지 잡혀있고 undo가 계속 쌓인다.
+ *  - clearAutomatically = true 때문에 영속성 컨텍스트 전체가 비워진다.
+ *
+ * 청크마다
+ *  1. 조건에 맞는 식별자를 chunk-size 만큼 조회 (마지막 처리 식별자 이후부터)
+ *  2. 그 식별자들만 수정/삭제하고 체크포인트(BulkJob)를 갱신한 뒤 커밋 (REQUIRES_NEW)
+ *  3. 호출한 쪽 영속성 컨텍스트와 2차 캐시에서 해당 엔티티만 제거 (Member면 페이징 count 캐시도 비움)
+ * 실패하면 같은 jobId로 다시 실행해서 이어서 처리할 수 있다.
+ *
+ * ! Hibernate는 JPQL 벌크 연산을 실행하면 해당 엔티티의 2차 캐시 영역 전체를 비운다.
+ * !  => 2차 캐시에서 영향받은 엔티티만 지우는 것은 다른 엔티티 영역과 쿼리 캐시를 보존하는 수준
+ */
+@Slf4j
+@Component
+public class BulkMutationEngine {
+
+    private final EntityManager em;
+    private final MemberCountCache memberCountCache;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final int maxRowsPerSecond;
+
+    public BulkMutationEngine(
+            EntityManager em,
+            MemberCountCache memberCountCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${datajpa.bulk.chunk-size:1000}") int chunkSize,
+            @Value("${datajpa.bulk.max-rows-per-second:0}") int maxRowsPerSecond
+    ) {
+        this.em = em;
+        this.memberCountCache = memberCountCache;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param jobId 작업 식별자 - 같은 jobId로 다시 실행하면 체크포인트부터 이어서 실행 (완료된 작업은 그대로 반환)
+     *              쿼리나 바인딩 파라미터가 처음 실행과 다르면 IllegalStateException
+     */
+    public BulkJob execute(String jobId, BulkMutation mutation) {
+        EntityType<?> entityType = entityType(mutation.getEntityName());
+        String idAttribute = entityType.getId(entityType.getIdType().getJavaType()).getName();
+        boolean versioned = entityType.hasVersionAttribute();
+        int size = mutation.getChunkSize() != null ? mutation.getChunkSize() : chunkSize;
+
+        BulkJob job = chunkTransaction.execute(status -> start(jobId, mutation));
+        long startNanos = System.nanoTime();
+        long rows = 0;
+
+        while (!job.isCompleted()) {
+            ChunkResult chunk = chunkTransaction.execute(status -> runChunk(jobId, mutation, idAttribute, versioned, size));
+            evict(entityType.getJavaType(), chunk.ids());
+            job = chunk.job();
+            rows += chunk.rows();
+            throttle(startNanos, rows);
+        }
+        log.info("bulk job {} completed - {} rows in {} chunks", job.getId(), job.getProcessedRows(), job.getChunks());
+        return job;
+    }
+
+    private BulkJob start(String jobId, BulkMutation mutation) {
+        BulkJob job = em.find(BulkJob.class, jobId);
+        String paramsHash = mutation.paramsHash();
+        if (job == null) {
+            job = new BulkJob(jobId, mutation.getStatement(), paramsHash);
+            em.persist(job);
+        } else if (!job.getStatement().equals(mutation.getStatement())) {
+            throw new IllegalStateException("bulk job " + jobId + "은 다른 쿼리로 실행된 작업입니다: " + job.getStatement());
+        } else if (job.getParamsHash() != null && !job.getParamsHash().equals(paramsHash)) {
+            throw new IllegalStateException("bulk job " + jobId + "은 다른 파라미터로 실행된 작업입니다: " + mutation.getParams());
+        }
+        return job;
+    }
+
+    private ChunkResult runChunk(String jobId, BulkMutation mutation, String idAttribute, boolean versioned, int size) {
+        BulkJob job = em.find(BulkJob.class, jobId);
+
+        Query select = em.createQuery(mutation.selectIds(idAttribute))
+                .setParameter("bulkLastId", job.getLastId() == null ? Long.MIN_VALUE : job.getLastId())
+                .setMaxResults(size);
+        bind(select, mutation.getParams());
+        @SuppressWarnings("unchecked")
+        List<Object> ids = select.getResultList();
+
+        if (ids.isEmpty()) {
+            job.complete();
+            return new ChunkResult(job, ids, 0);
+        }
+
+        Query mutate = em.createQuery(mutation.mutateIds(idAttribute, versioned))
+                .setParameter("bulkIds", ids);
+        bind(mutate, mutation.getParams());
+        int rows = mutate.executeUpdate();
+
+        job.advance(((Number) ids.get(ids.size() - 1)).longValue(), rows);
+        if (ids.size() < size) {
+            job.complete();
+        }
+        return new ChunkResult(job, ids, rows);
+    }
+
+    //? 식별자 조회 쿼리에는 set 절의 파라미터가 없기 때문에 쿼리에 있는 파라미터만 바인딩
+    private static void bind(Query query, Map<String, Object> params) {
+        for (Parameter<?> parameter : query.getParameters()) {
+            if (params.containsKey(parameter.getName())) {
+                query.setParameter(parameter.getName(), params.get(parameter.getName()));
+            }
+        }
+    }
+
+    /**
+     * 호출한 쪽 트랜잭션의 영속성 컨텍스트에서 수정된 엔티티만 준영속으로 만든다.
+     * (clearAutomatically처럼 전체를 비우지 않음)
+     * getReference는 영속성 컨텍스트에 있으면 그 엔티티를, 없으면 초기화하지 않은 프록시를 반환하기 때문에 쿼리가 나가지 않는다.
+     */
+    private void evict(Class<?> entityClass, List<Object> ids) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            for (Object id : ids) {
+                em.detach(em.getReference(entityClass, id));
+            }
+        }
+        for (Object id : ids) {
+            em.getEntityManagerFactory().getCache().evict(entityClass, id);
+        }
+        //? 청크는 이미 커밋됐기 때문에 바로 비운다. (엔티티 이벤트가 없어서 MemberCountCacheListener가 호출되지 않음)
+        if (!ids.isEmpty() && Member.class.isAssignableFrom(entityClass)) {
+            memberCountCache.evictNow();
+        }
+    }
+
+    //? 초당 처리 건수 제한 - 복제 지연이나 다른 트랜잭션에 주는 영향을 줄이기 위해 청크 사이에 쉰다.
+    private void throttle(long startNanos, long rows) {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long expectedNanos = rows * 1_000_000_000L / maxRowsPerSecond;
+        long sleepMillis = (expectedNanos - (System.nanoTime() - startNanos)) / 1_000_000;
+        if (sleepMillis > 0) {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("bulk job interrupted", e);
+            }
+        }
+    }
+
+    private EntityType<?> entityType(String entityName) {
+        return em.getMetamodel().getEntities().stream()
+                .filter(type -> type.getName().equals(entityName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("엔티티를 찾을 수 없습니다: " + entityName));
+    }
+
+    private record ChunkResult(BulkJob job, List<Object> ids, int rows) {
+    }
+}
@@ -1,24 +1,48 @@
 package study.datajpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberScrollDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberCursor;
 import study.datajpa.repository.MemberRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    //? Pageable 페이징과 같은 최대 크기를 키셋 페이징에도 적용
+    @Value("${spring.data.web.pageable.max-page-size:2000}")
+    private int maxPageSize;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
@@ -50,7 +74,9 @@ public class MemberController {
             @PageableDefault(size = 5) Pageable pageable
     ) {
         // findAll에 pageable을 넘기면 페이징 처리가 된다.(어떤 쿼리라도 - PagingAndSortingRepository가 동작)
-        Page<Member> page = memberRepository.findAll(pageable);
+//        Page<Member> page = memberRepository.findAll(pageable);
+        // findAll(pageable)은 매 요청마다 count 쿼리가 나가기 때문에 캐시된(또는 예상) total을 사용
+        Page<Member> page = memberRepository.findAllWithCachedCount(pageable);
 
         int pageNum = 1;
 
@@ -64,6 +90,80 @@ public class MemberController {
         return page.map(MemberDto::new);
     }
 
+    /**
+     * 비동기 페이징 - CompletableFuture를 반환하면 요청 스레드는 바로 반납되고
+     * 페이지 쿼리와 count 쿼리가 끝나면 응답을 내려준다.
+     */
+    @GetMapping("/members/async")
+    public CompletableFuture<Page<MemberDto>> listAsync(
+            @RequestParam("age") int age,
+            @PageableDefault(size = 5) Pageable pageable
+    ) {
+        return memberRepository.findPageByAgeAsync(age, pageable)
+                .thenApply(page -> page.map(MemberDto::new));
+    }
+
+    /**
+     * 키셋(커서) 페이징
+     * members?after=&sort=age&size=20 => 첫 페이지
+     * members?after={next} => 이전 응답의 next 토큰으로 다음 페이지 조회 (정렬 기준은 토큰에 들어있음)
+     *
+     * offset을 쓰지 않기 때문에 페이지가 깊어져도 조회 비용이 같다.
+     */
+    @GetMapping(value = "/members", params = "after")
+    public MemberScrollDto scroll(
+            @RequestParam("after") String after,
+            @RequestParam(value = "sort", defaultValue = "username") String sort,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        if (size <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size는 1 이상이어야 합니다.");
+        }
+        MemberCursor cursor;
+        try {
+            cursor = after.isEmpty()
+                    ? MemberCursor.first(MemberCursor.sortKey(sort))
+                    : MemberCursor.decode(after);
+        } catch (IllegalArgumentException e) { //? 잘못된 정렬 기준/토큰은 서버 오류(500)가 아니라 요청 오류
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+
+        Slice<Member> slice = memberRepository.findByCursor(cursor, Math.min(size, maxPageSize));
+
+        String next = null;
+        if (slice.hasNext()) {
+            Member last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            next = MemberCursor.after(last, cursor.getSortKey()).encode();
+        }
+        return new MemberScrollDto(slice.map(MemberDto::new).getContent(), next, slice.hasNext());
+    }
+
+    /**
+     * 전체 회원 내보내기 - 한 줄에 회원 하나씩 JSON으로 내려준다.(NDJSON)
+     * StreamingResponseBody는 응답을 별도 스레드에서 쓰기 때문에 OSIV의 영속성 컨텍스트가 없다.
+     * => 스트림이 열려있는 동안 커넥션을 유지하도록 직접 읽기 전용 트랜잭션을 열어준다.
+     */
+    @GetMapping(value = "/members/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody export() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        return out -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<MemberDto> stream = memberRepository.streamAllMemberDto()) {
+                stream.forEach(dto -> writeLine(out, dto));
+            }
+        });
+    }
+
+    private void writeLine(OutputStream out, MemberDto dto) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(dto));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 //    @PostConstruct
 //    public void init() {
 //        for (int i = 0; i < 100; i++) {
@@ -0,0 +1,14 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+//* 키셋 페이징 응답 - 다음 페이지는 next 토큰을 after 파라미터로 넘겨서 조회
+@Data
+public class MemberScrollDto {
+
+    private final List<MemberDto> content;
+    private final String next;
+    private final boolean hasNext;
+}
@@ -3,6 +3,7 @@ package study.datajpa.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
@@ -12,6 +13,15 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
+/**
+ * 식별자는 각 엔티티가 직접 가지고 있다.(컬럼명이 엔티티마다 다름 - member_id, team_id ...)
+ * 상속받는 엔티티를 새로 만들면 Member, Team 처럼 @PooledSequence를 붙여서
+ * 엔티티별 시퀀스(xxx_seq)를 풀링으로 사용하도록 맞춰준다.
+ *
+ * @Version: 낙관적 락 - 수정할 때 where version = ? 조건을 붙이고 version을 1 올린다.
+ * 그 사이 다른 트랜잭션이 먼저 수정했으면 수정된 행이 0건 => OptimisticLockException
+ * 락을 잡지 않기 때문에 충돌이 드문 수정은 비관적 락(findLockByUsername)보다 처리량이 높다. (OptimisticRetryExecutor로 재시도)
+ */
 @Getter
 @MappedSuperclass
 // 이벤트 기반으로 동작한다는 것을 알려준다. - 해당 클래스에 Auditing 기능을 포함시킴
@@ -24,4 +34,7 @@ public class BaseEntity extends BaseTimeEntity {
 
     @LastModifiedBy // 수정자를 기입해줌.
     private String lastModifiedBy;
+
+    @Version
+    private Long version;
 }
@@ -0,0 +1,64 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 벌크 수정/삭제 작업의 진행 상황(체크포인트)
+ * 청크마다 같은 트랜잭션에서 갱신되기 때문에 중간에 실패해도 마지막으로 커밋된 청크 다음부터 다시 실행할 수 있다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "status", "lastId", "processedRows"})
+public class BulkJob extends BaseTimeEntity {
+
+    public enum Status {
+        RUNNING, COMPLETED
+    }
+
+    @Id
+    @Column(name = "bulk_job_id")
+    private String id;
+
+    @Column(length = 2000, updatable = false)
+    private String statement;
+
+    //* 바인딩 파라미터의 해시 - 파라미터가 다르면 체크포인트(lastId)가 맞지 않기 때문에 이어서 실행하지 않는다.
+    @Column(length = 64, updatable = false)
+    private String paramsHash;
+
+    //* 마지막으로 처리한 식별자 - 다음 청크는 이 값보다 큰 식별자부터
+    private Long lastId;
+
+    private long processedRows;
+
+    private int chunks;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    public BulkJob(String id, String statement, String paramsHash) {
+        this.id = id;
+        this.statement = statement;
+        this.paramsHash = paramsHash;
+        this.status = Status.RUNNING;
+    }
+
+    public void advance(Long lastId, int rows) {
+        this.lastId = lastId;
+        this.processedRows += rows;
+        this.chunks++;
+    }
+
+    public void complete() {
+        this.status = Status.COMPLETED;
+    }
+
+    public boolean isCompleted() {
+        return status == Status.COMPLETED;
+    }
+}
@@ -1,5 +1,6 @@
 package study.datajpa.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
@@ -24,6 +25,7 @@ public class Item implements Persistable<String> {
     private String id;
 
     @CreatedDate // JPA이벤트라서 데이터가 등록될 때 값이 생성됨
+    @Column(updatable = false) // upsertAll로 다시 저장해도 처음 등록일 유지
     private LocalDateTime createdDate;
 
     public Item(String id) {
@@ -5,6 +5,7 @@ import jakarta.persistence.MappedSuperclass;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import lombok.Getter;
+import study.datajpa.audit.AuditClock;
 
 import java.time.LocalDateTime;
 
@@ -21,7 +22,7 @@ public abstract class JpaBaseEntity {
      */
     @PrePersist
     public void prePersist() {
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = AuditClock.now(); //? 스프링 데이터 Auditing과 같은 시각
         this.createdDate = now;
         this.updateDate = now;
     }
@@ -31,6 +32,6 @@ public abstract class JpaBaseEntity {
      */
     @PreUpdate
     public void preUpdate() {
-        this.updateDate = LocalDateTime.now();
+        this.updateDate = AuditClock.now();
     }
 }
@@ -2,6 +2,8 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter @Setter
@@ -9,13 +11,27 @@ import lombok.*;
 @ToString(of = {"id", "username", "age"}) // 연관관계 필드는 주의해서 사용할 것(무한루프 발생)
 @NamedQuery(
         name = "Member.findByUsername2",
-        query = "select m from Member m where m.username = :username"
+        query = "select m from Member m where m.username = :username",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true") // 쿼리 캐시 사용
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+//? 키셋 페이징용 인덱스 - (정렬 컬럼, member_id) 순서로 만들어야 커서 위치부터 바로 읽을 수 있다.
+@Table(indexes = {
+        @Index(name = "idx_member_username_id", columnList = "username, member_id"),
+        @Index(name = "idx_member_age_id", columnList = "age, member_id")
+})
+//? 2차 캐시 - findById 같은 식별자 조회는 DB 대신 캐시(ehcache.xml의 member 영역)에서 가져온다.
+//? READ_WRITE: 수정/삭제 시 캐시 항목을 잠갔다가 커밋 후 갱신 - 다른 트랜잭션이 옛날 값을 보지 않음
+//? 벌크 수정(bulkAgePlus 등 @Modifying)은 하이버네이트가 member 영역과 쿼리 캐시를 통째로 무효화한다.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
+//? 회원이 저장/삭제/수정되면 페이징 count 캐시를 비운다.
+@EntityListeners(MemberCountCacheListener.class)
 public class Member extends BaseEntity {
 
     @Id
-    @GeneratedValue
+    //? 풀링 시퀀스 사용 - 저장할 때마다 시퀀스를 조회하지 않고 allocation_size 만큼 미리 받아둔다.
+    @PooledSequence("member_seq")
     @Column(name = "member_id") // 필드와 매칭되는 컬럼명을 지정해줄 수 있다.
     private Long id;
 
@@ -30,6 +46,9 @@ public class Member extends BaseEntity {
      * LAZY(지연로딩)을 사용해야하는 이유:
      * 모든 연관관계는 기본적으로 다 지연로딩으로 세팅해야 하는데
      * 즉시 로딩으로 걸려있는 경우 성능 최적화하기가 어렵기 떄문이다.
+     *
+     * 지연로딩된 팀 프록시는 hibernate.default_batch_fetch_size 만큼 모아서
+     * where team_id in (...) 한번으로 초기화된다. => 페치 조인이 없는 조회에서도 N+1이 생기지 않음
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
@@ -0,0 +1,36 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import study.datajpa.repository.MemberCountCache;
+
+/**
+ * Member가 변경되면 페이징 count 캐시를 비워주는 엔티티 리스너
+ * 스프링 부트는 하이버네이트가 엔티티 리스너를 스프링 빈처럼 생성하도록 설정해주기 때문에 주입을 받을 수 있다.
+ *
+ * 캐시는 커밋 후에 비운다. (MemberCountCache) - 롤백되면 그대로 유지
+ * 같은 트랜잭션 안의 count는 캐시를 거치지 않고 DB에서 조회하기 때문에 flush 전에 조회해도 옛날 값이 나오지 않는다.
+ * (count 쿼리를 실행하면 자동으로 flush 된 뒤에 조회됨)
+ */
+public class MemberCountCacheListener {
+
+    public static final String CACHE_NAME = "memberCount";
+
+    private final ObjectProvider<MemberCountCache> memberCountCache;
+
+    public MemberCountCacheListener(ObjectProvider<MemberCountCache> memberCountCache) {
+        this.memberCountCache = memberCountCache;
+    }
+
+    @PrePersist
+    @PreRemove
+    @PostUpdate
+    public void evict(Object entity) {
+        MemberCountCache cache = memberCountCache.getIfAvailable();
+        if (cache != null) {
+            cache.evictAfterCommit();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * 식별자에 PooledSequenceGenerator를 붙이는 어노테이션 (@GeneratedValue 없이 사용)
+ * ex) @Id @PooledSequence("member_seq")
+ *
+ * 하이버네이트 6.5부터 @GenericGenerator는 deprecated - 생성기를 지정하는 어노테이션을 직접 만들어서 사용한다.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledSequence {
+
+    //* 시퀀스 이름
+    String value();
+}
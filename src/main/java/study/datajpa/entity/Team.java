@@ -2,6 +2,9 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,9 +13,13 @@ import java.util.List;
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+//? 팀은 자주 바뀌지 않고 회원 조회때마다 지연로딩되기 때문에 2차 캐시에 올려둔다.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
 public class Team extends BaseEntity {
 
-    @Id @GeneratedValue
+    @Id
+    @PooledSequence("team_seq")
     @Column(name = "team_id")
     private Long id;
 
@@ -26,7 +33,11 @@ public class Team extends BaseEntity {
      * mappedBy : Member에서 자신을 가지는 필드를 설정
      * => 연관관계의 주인을 설정하는 것.
      * => 외래키가 없는쪽에 설정하는것이 권장됨.
+     *
+     * @BatchSize: 여러 팀의 members 컬렉션을 초기화할 때 팀 100개씩 모아서
+     * where team_id in (...) 로 한번에 가져온다. (전역 설정은 hibernate.default_batch_fetch_size)
      */
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,97 @@
+package study.datajpa.monitor;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 측정한 커넥션 대기 시간과 쿼리 시간으로 히카리 풀 최대 크기를 조절한다. (datajpa.pool.adaptive.enabled=true)
+ *
+ * 주기마다 (구간 평균)
+ *  - 쿼리 시간 > max-query-latency      : DB가 포화 - 커넥션을 늘리면 더 느려지므로 step 만큼 줄인다.
+ *  - 대기 시간 > target-acquire-time 또는 대기 스레드 있음 : step 만큼 늘린다.
+ *  - 대기 없음 + 유휴 커넥션이 절반 이상 : 1개씩 줄인다.
+ * 크기는 min-size ~ max-size 사이에서만 바뀐다.
+ *
+ * ! 줄일 때는 사용 중인 커넥션을 끊지 않고 반납되는 커넥션부터 정리된다.
+ * ! 풀이 하나일 때만 사용할 수 있다. - replica/sharding 프로필은 풀이 여러개라 하나만 조절하면 다른 풀의 쿼리 시간까지 섞인 평균으로
+ * !   엉뚱한 풀을 조절하게 되므로 시작할 때 예외
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "datajpa.pool.adaptive", name = "enabled", havingValue = "true")
+public class AdaptivePoolSizer {
+
+    private final HikariDataSource hikari;
+    private final ConnectionUsageTracker tracker;
+    private final PoolProperties.Adaptive properties;
+    //* 설정된 minimum-idle - 줄일 때 낮췄다가 다시 늘리면 이 값까지 되돌린다.
+    private final int configuredMinimumIdle;
+    private long[] previous;
+
+    public AdaptivePoolSizer(DataSource dataSource, ConnectionUsageTracker tracker, PoolProperties properties) throws SQLException {
+        if (dataSource.isWrapperFor(AbstractRoutingDataSource.class) || dataSource.isWrapperFor(LazyConnectionDataSourceProxy.class)) {
+            throw new IllegalStateException("datajpa.pool.adaptive는 커넥션 풀이 하나일 때만 사용할 수 있습니다. (replica/sharding 프로필에서는 끌 것)");
+        }
+        //? p6spy 등으로 감싸져 있어도 실제 히카리 풀을 꺼낸다.
+        this.hikari = dataSource.unwrap(HikariDataSource.class);
+        this.tracker = tracker;
+        this.properties = properties.getAdaptive();
+        //? 설정하지 않으면(-1) 히카리는 최대 크기와 같게 둔다.
+        this.configuredMinimumIdle = hikari.getMinimumIdle() < 0 ? Integer.MAX_VALUE : hikari.getMinimumIdle();
+        this.previous = tracker.totals();
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.pool.adaptive.interval:10s}")
+    public void resize() {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        long[] totals = tracker.totals();
+        long acquires = totals[0] - previous[0];
+        long statements = totals[2] - previous[2];
+        double acquireMs = acquires == 0 ? 0 : toMillis(totals[1] - previous[1]) / acquires;
+        double queryMs = statements == 0 ? 0 : toMillis(totals[3] - previous[3]) / statements;
+        previous = totals;
+        if (pool == null) { // 아직 커넥션을 한번도 요청하지 않음
+            return;
+        }
+
+        //? 풀이 시작된 뒤에는 HikariConfigMXBean으로만 설정을 바꿀 수 있다.
+        HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+        int current = config.getMaximumPoolSize();
+        int target = nextSize(properties, current, acquireMs, queryMs, pool.getThreadsAwaitingConnection(), pool.getIdleConnections());
+        if (target != current) {
+            log.info("커넥션 풀 크기 {} -> {} (평균 대기 {}ms, 평균 쿼리 {}ms, 대기 스레드 {})",
+                    current, target, String.format("%.2f", acquireMs), String.format("%.2f", queryMs),
+                    pool.getThreadsAwaitingConnection());
+            //? minimum-idle은 최대 크기를 넘을 수 없다. - 줄일 때 낮추고, 늘릴 때 설정값까지 되돌린다.
+            config.setMinimumIdle(Math.min(configuredMinimumIdle, target));
+            config.setMaximumPoolSize(target);
+        }
+    }
+
+    static int nextSize(PoolProperties.Adaptive properties, int current, double acquireMs, double queryMs, int waiting, int idle) {
+        int target = current;
+        if (queryMs > properties.getMaxQueryLatency().toMillis()) {
+            target = current - properties.getStep();
+        } else if (acquireMs > properties.getTargetAcquireTime().toMillis() || waiting > 0) {
+            target = current + properties.getStep();
+        } else if (idle * 2 >= current) {
+            target = current - 1;
+        }
+        return Math.max(properties.getMinSize(), Math.min(properties.getMaxSize(), target));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
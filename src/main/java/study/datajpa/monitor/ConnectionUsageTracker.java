@@ -0,0 +1,130 @@
+package study.datajpa.monitor;
+
+import com.p6spy.engine.common.ConnectionInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 레포지토리 메소드별 커넥션 사용 측정 (p6spy 커넥션 이벤트)
+ *
+ * micrometer 메트릭 (tag: method=MemberRepository.findByAge ...)
+ *  - repository.connection.acquire : 풀에서 커넥션을 받기까지 기다린 시간
+ *  - repository.connection.usage   : 커넥션을 받아서 반납할 때까지 잡고 있던 시간
+ * 레포지토리 밖(서비스 트랜잭션 등)에서 얻은 커넥션은 method=none
+ * 풀 전체 상태(active/idle/pending, acquire 히스토그램)는 스프링 부트가 hikaricp.connections.* 로 내보낸다.
+ *
+ * 오래 잡고 있는 커넥션: datajpa.pool.long-held-threshold 보다 오래 반납하지 않으면
+ * 커넥션을 잡고 있는 스레드의 현재 스택을 경고 로그로 남긴다. (커넥션 누수, 긴 트랜잭션 안에서의 외부 호출 등)
+ * ! 획득 시점의 스택을 매번 만들지 않고, 검사할 때 잡고 있는 스레드의 스택을 본다. => 평소 비용 없음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConnectionUsageTracker extends SimpleJdbcEventListener {
+
+    private static final String NO_METHOD = "none";
+
+    private final MeterRegistry registry;
+    private final PoolProperties properties;
+
+    private final Map<ConnectionInformation, Holder> holders = new ConcurrentHashMap<>();
+    private final Map<String, Timer> acquireTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> usageTimers = new ConcurrentHashMap<>();
+
+    //* AdaptivePoolSizer가 주기마다 평균을 구하는 누적값
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder statementCount = new LongAdder();
+    private final LongAdder statementNanos = new LongAdder();
+
+    @Override
+    public void onAfterGetConnection(ConnectionInformation connectionInformation, SQLException e) {
+        if (e != null) {
+            return;
+        }
+        String method = currentMethod();
+        long waitNanos = connectionInformation.getTimeToGetConnectionNs();
+        acquireCount.increment();
+        acquireNanos.add(waitNanos);
+        timer(acquireTimers, "repository.connection.acquire", method).record(waitNanos, TimeUnit.NANOSECONDS);
+        holders.put(connectionInformation, new Holder(method, Thread.currentThread(), System.nanoTime()));
+    }
+
+    @Override
+    public void onAfterConnectionClose(ConnectionInformation connectionInformation, SQLException e) {
+        Holder holder = holders.remove(connectionInformation);
+        if (holder != null) {
+            timer(usageTimers, "repository.connection.usage", holder.method())
+                    .record(System.nanoTime() - holder.acquiredNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        statementCount.increment();
+        statementNanos.add(timeElapsedNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.pool.long-held-check-interval:5s}")
+    public void reportLongHeld() {
+        long threshold = properties.getLongHeldThreshold().toNanos();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        holders.values().forEach(holder -> {
+            long heldNanos = now - holder.acquiredNanos();
+            if (heldNanos > threshold && holder.reported().compareAndSet(false, true)) {
+                log.warn("커넥션을 {}ms 동안 반납하지 않음 - method={}, thread={}\n{}",
+                        TimeUnit.NANOSECONDS.toMillis(heldNanos), holder.method(), holder.thread().getName(),
+                        Arrays.stream(holder.thread().getStackTrace())
+                                .map(element -> "\tat " + element)
+                                .collect(Collectors.joining("\n")));
+            }
+        });
+    }
+
+    //* 지금까지 누적된 (대기 횟수, 대기 시간, 쿼리 수, 쿼리 시간) - 이전 값과의 차이로 구간 평균을 구한다.
+    public long[] totals() {
+        return new long[]{acquireCount.sum(), acquireNanos.sum(), statementCount.sum(), statementNanos.sum()};
+    }
+
+    public int heldConnections() {
+        return holders.size();
+    }
+
+    private static String currentMethod() {
+        QueryMetricsContext.Measurement measurement = QueryMetricsContext.current();
+        return measurement != null ? measurement.getMethod() : NO_METHOD;
+    }
+
+    private Timer timer(Map<String, Timer> timers, String name, String method) {
+        return timers.computeIfAbsent(method, key -> Timer.builder(name)
+                .tag("method", key)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private record Holder(String method, Thread thread, long acquiredNanos,
+                          AtomicBoolean reported) {
+
+        Holder(String method, Thread thread, long acquiredNanos) {
+            this(method, thread, acquiredNanos, new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package study.datajpa.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JVM 시작부터 첫 HTTP 요청의 응답이 끝날 때까지 걸린 시간 (time-to-first-request)
+ * 스프링 부트의 application.ready.time은 컨텍스트가 뜬 시점까지라서
+ * 첫 요청에서 일어나는 지연 초기화(디스패처 서블릿, 레포지토리, 쿼리 플랜 등)는 포함하지 않는다.
+ *
+ * 메트릭: application.first.request.time
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!recorded.get() && recorded.compareAndSet(false, true)) {
+                long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+                TimeGauge.builder("application.first.request.time", () -> uptimeMillis, TimeUnit.MILLISECONDS)
+                        .description("JVM 시작부터 첫 요청 응답까지 걸린 시간")
+                        .register(registry);
+                log.info("time-to-first-request: {}ms ({} {})", uptimeMillis, request.getMethod(), request.getRequestURI());
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package study.datajpa.monitor;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * N+1 감지기
+ * 지연로딩 N+1은 "파라미터만 다른 같은 조회 쿼리"가 반복해서 나가는 모양으로 나타난다.
+ * 한 HTTP 요청(NPlusOneRequestFilter) 또는 한 트랜잭션 안에서 같은 SQL이 threshold 번을 넘게 실행되면 N+1로 판단한다.
+ *
+ * where 절이 없는 조회(시퀀스 조회 등)는 N+1이 아니므로 세지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NPlusOneDetector extends SimpleJdbcEventListener {
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private final NPlusOneProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public void openScope() {
+        SCOPE.set(new Scope(sampled()));
+    }
+
+    public void closeScope() {
+        SCOPE.remove();
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (properties.getMode() == NPlusOneProperties.Mode.OFF) {
+            return;
+        }
+
+        String sql = statementInformation.getStatementQuery();
+        if (sql == null || !isLookup(sql)) {
+            return;
+        }
+
+        Scope scope = currentScope();
+        if (scope == null || !scope.sampled) {
+            return;
+        }
+
+        int count = scope.executed.merge(sql, 1, Integer::sum);
+        if (count > properties.getThreshold()) {
+            report(sql, count);
+        }
+    }
+
+    private void report(String sql, int count) {
+        String callSite = callSite();
+        String message = "N+1 의심: 같은 쿼리가 " + count + "번 실행됨 (호출 위치: " + callSite + ")\n" + sql;
+
+        if (properties.getMode() == NPlusOneProperties.Mode.STRICT) {
+            throw new NPlusOneException(message);
+        }
+
+        //? 운영에서는 임계치를 처음 넘었을 때 한번만 남긴다.
+        if (count == properties.getThreshold() + 1) {
+            meterRegistry.counter("nplusone.detected", "call_site", callSite).increment();
+            log.warn(message);
+        }
+    }
+
+    /**
+     * 요청 범위가 없으면 현재 트랜잭션 범위로 검사한다.
+     * 트랜잭션이 끝나면(afterCompletion) 범위를 정리한다.
+     */
+    private Scope currentScope() {
+        Scope scope = SCOPE.get();
+        if (scope == null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            scope = new Scope(sampled());
+            SCOPE.set(scope);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    closeScope();
+                }
+            });
+        }
+        return scope;
+    }
+
+    private boolean sampled() {
+        return properties.getMode() != NPlusOneProperties.Mode.SAMPLING
+                || ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+    }
+
+    private boolean isLookup(String sql) {
+        String normalized = sql.trim().toLowerCase(Locale.ROOT);
+        return normalized.startsWith("select") && normalized.contains("where");
+    }
+
+    //? 프록시/모니터링 코드를 건너뛰고 N+1을 일으킨 우리 코드의 위치를 찾는다.
+    private String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("study.datajpa"))
+                .filter(frame -> !frame.getClassName().startsWith("study.datajpa.monitor"))
+                .filter(frame -> !frame.getClassName().contains("$HibernateProxy"))
+                .filter(frame -> !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.toStackTraceElement().toString())
+                .orElse("unknown"));
+    }
+
+    private static class Scope {
+
+        private final boolean sampled;
+        private final Map<String, Integer> executed = new HashMap<>();
+
+        private Scope(boolean sampled) {
+            this.sampled = sampled;
+        }
+    }
+}
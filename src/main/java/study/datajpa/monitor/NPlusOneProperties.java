@@ -0,0 +1,26 @@
+package study.datajpa.monitor;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter @Setter
+@Component
+@ConfigurationProperties(prefix = "datajpa.nplusone")
+public class NPlusOneProperties {
+
+    public enum Mode {
+        OFF,
+        STRICT,   // 테스트용 - 임계치를 넘으면 호출 위치와 함께 예외 발생
+        SAMPLING  // 운영용 - 일부 요청/트랜잭션만 검사해서 메트릭 + 경고 로그
+    }
+
+    private Mode mode = Mode.SAMPLING;
+
+    //* 한 요청(트랜잭션) 안에서 같은 조회 쿼리가 이 횟수를 넘으면 N+1로 판단
+    private int threshold = 10;
+
+    //* SAMPLING 모드에서 검사할 요청(트랜잭션) 비율
+    private double sampleRate = 0.1;
+}
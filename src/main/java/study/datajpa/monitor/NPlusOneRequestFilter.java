@@ -0,0 +1,30 @@
+package study.datajpa.monitor;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+//* HTTP 요청 하나를 N+1 검사 범위로 묶어준다. (OSIV로 뷰 렌더링 중 발생하는 지연로딩까지 포함)
+@Component
+@RequiredArgsConstructor
+public class NPlusOneRequestFilter extends OncePerRequestFilter {
+
+    private final NPlusOneDetector detector;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        detector.openScope();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            detector.closeScope();
+        }
+    }
+}
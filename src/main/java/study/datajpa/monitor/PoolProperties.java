@@ -0,0 +1,38 @@
+package study.datajpa.monitor;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter @Setter
+@Component
+@ConfigurationProperties(prefix = "datajpa.pool")
+public class PoolProperties {
+
+    //* 커넥션을 이 시간보다 오래 잡고 있으면 잡고 있는 스레드의 스택과 함께 경고 (0: 검사 안함)
+    private Duration longHeldThreshold = Duration.ofSeconds(5);
+
+    private Adaptive adaptive = new Adaptive();
+
+    @Getter @Setter
+    public static class Adaptive {
+
+        //* AdaptivePoolSizer 사용 여부 - 기본은 고정 크기(spring.datasource.hikari.maximum-pool-size)
+        private boolean enabled = false;
+
+        private int minSize = 5;
+        private int maxSize = 40;
+
+        //* 한번에 늘리거나 줄이는 커넥션 수
+        private int step = 2;
+
+        //* 평균 커넥션 대기 시간이 이보다 길면 풀을 늘린다.
+        private Duration targetAcquireTime = Duration.ofMillis(5);
+
+        //* 평균 쿼리 시간이 이보다 길면 DB가 포화된 것으로 보고 늘리지 않고 줄인다. (커넥션을 늘려도 더 느려질 뿐)
+        private Duration maxQueryLatency = Duration.ofMillis(50);
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.monitor;
+
+/**
+ * 레포지토리 메소드 하나가 실행되는 동안 나간 쿼리 정보를 모아두는 곳 (스레드별)
+ * 레포지토리 안에서 다른 레포지토리를 호출하면 안쪽 측정값이 끝날 때 바깥쪽에 더해진다.
+ */
+public final class QueryMetricsContext {
+
+    private static final ThreadLocal<Measurement> CURRENT = new ThreadLocal<>();
+
+    private QueryMetricsContext() {
+    }
+
+    public static Measurement start(String method) {
+        Measurement measurement = new Measurement(CURRENT.get(), method);
+        CURRENT.set(measurement);
+        return measurement;
+    }
+
+    public static void end(Measurement measurement) {
+        Measurement parent = measurement.parent;
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+            parent.add(measurement);
+        }
+    }
+
+    public static Measurement current() {
+        return CURRENT.get();
+    }
+
+    public static class Measurement {
+
+        private final Measurement parent;
+        private final String method;
+        private long statements;
+        private long rows;
+        private long jdbcNanos;
+
+        private Measurement(Measurement parent, String method) {
+            this.parent = parent;
+            this.method = method;
+        }
+
+        void statementExecuted(long elapsedNanos) {
+            statements++;
+            jdbcNanos += elapsedNanos;
+        }
+
+        void rowFetched(long elapsedNanos, boolean hasNext) {
+            if (hasNext) {
+                rows++;
+            }
+            jdbcNanos += elapsedNanos;
+        }
+
+        private void add(Measurement child) {
+            statements += child.statements;
+            rows += child.rows;
+            jdbcNanos += child.jdbcNanos;
+        }
+
+        //* 측정 중인 레포지토리 메소드 (MemberRepository.findByAge ...)
+        public String getMethod() {
+            return method;
+        }
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getJdbcNanos() {
+            return jdbcNanos;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.monitor;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 이벤트 리스너 - 빈으로 등록하면 p6spy-spring-boot-starter가 자동으로 붙여준다.
+ * 쿼리 실행, ResultSet.next() 마다 호출되어 현재 레포지토리 메소드의 측정값에 더한다.
+ */
+@Component
+public class QueryMetricsJdbcListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        QueryMetricsContext.Measurement measurement = QueryMetricsContext.current();
+        if (measurement != null) {
+            measurement.statementExecuted(timeElapsedNanos);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+                                     boolean hasNext, SQLException e) {
+        QueryMetricsContext.Measurement measurement = QueryMetricsContext.current();
+        if (measurement != null) {
+            measurement.rowFetched(timeElapsedNanos, hasNext);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package study.datajpa.monitor;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/queryplans
+ * Hibernate 쿼리 플랜 캐시의 전체 hit/miss와 쿼리별 hit/miss/실행 통계를 보여준다. (datajpa.statistics.enabled=true 필요)
+ * 쿼리별 repeatedMisses: 처음 한번의 miss(최초 파싱)를 뺀 나머지 miss
+ *  - 하이버네이트는 플랜 캐시 eviction 횟수를 제공하지 않기 때문에 추정치다. (캐시에서 밀려나서 다시 파싱했거나, 동시에 처음 파싱했거나)
+ *  => 이 값이 계속 늘어나면 plan_cache_max_size를 늘린다.
+ */
+@Component
+@Endpoint(id = "queryplans")
+public class QueryPlanCacheEndpoint {
+
+    private final SessionFactory sessionFactory;
+
+    public QueryPlanCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @ReadOperation
+    public Map<String, Object> plans() {
+        Statistics statistics = sessionFactory.getStatistics();
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled()); //? false면 모든 값이 0
+        result.put("maxSize", sessionFactory.getProperties().getOrDefault(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, "default"));
+        result.put("hits", hits);
+        result.put("misses", misses);
+        result.put("hitRatio", hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+
+        Map<String, Map<String, Object>> queries = new LinkedHashMap<>();
+        Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> e) -> e.getValue().getPlanCacheMissCount()).reversed())
+                .forEach(entry -> {
+                    QueryStatistics query = entry.getValue();
+                    Map<String, Object> stats = new LinkedHashMap<>();
+                    stats.put("hits", query.getPlanCacheHitCount());
+                    stats.put("misses", query.getPlanCacheMissCount());
+                    stats.put("repeatedMisses", Math.max(0, query.getPlanCacheMissCount() - 1));
+                    stats.put("executions", query.getExecutionCount());
+                    stats.put("avgTimeMs", query.getExecutionAvgTime());
+                    queries.put(entry.getKey(), stats);
+                });
+        result.put("queries", queries);
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+package study.datajpa.monitor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 레포지토리 메소드별 쿼리 수 / 조회 행 수 / JDBC 시간 / 하이드레이션 시간 기록
+ *
+ * micrometer 메트릭 (tag: method=MemberRepository.findByAge ...)
+ *  - repository.method.time        : 메소드 전체 실행 시간
+ *  - repository.method.jdbc        : 쿼리 실행 + ResultSet 읽기 시간
+ *  - repository.method.hydration   : 전체 - JDBC = 결과를 엔티티/DTO로 만드는 시간(+ 프록시 오버헤드)
+ *  - repository.method.statements  : 실행한 쿼리 수
+ *  - repository.method.rows        : 읽어온 행 수
+ */
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    public void record(String method, long elapsedNanos, QueryMetricsContext.Measurement measurement) {
+        methods.computeIfAbsent(method, MethodMetrics::new).record(elapsedNanos, measurement);
+    }
+
+    //* 액추에이터 엔드포인트에서 사용 - 메소드 이름순 정렬
+    public Map<String, MethodMetrics> snapshot() {
+        return new TreeMap<>(methods);
+    }
+
+    @Getter
+    public class MethodMetrics {
+
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder jdbcNanos = new LongAdder();
+
+        private final Timer timeTimer;
+        private final Timer jdbcTimer;
+        private final Timer hydrationTimer;
+        private final DistributionSummary statementSummary;
+        private final DistributionSummary rowSummary;
+
+        private MethodMetrics(String method) {
+            timeTimer = timer("repository.method.time", method);
+            jdbcTimer = timer("repository.method.jdbc", method);
+            hydrationTimer = timer("repository.method.hydration", method);
+            statementSummary = summary("repository.method.statements", method);
+            rowSummary = summary("repository.method.rows", method);
+        }
+
+        private void record(long elapsedNanos, QueryMetricsContext.Measurement measurement) {
+            long jdbc = Math.min(measurement.getJdbcNanos(), elapsedNanos);
+
+            invocations.increment();
+            statements.add(measurement.getStatements());
+            rows.add(measurement.getRows());
+            totalNanos.add(elapsedNanos);
+            jdbcNanos.add(jdbc);
+
+            timeTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            jdbcTimer.record(jdbc, TimeUnit.NANOSECONDS);
+            hydrationTimer.record(elapsedNanos - jdbc, TimeUnit.NANOSECONDS);
+            statementSummary.record(measurement.getStatements());
+            rowSummary.record(measurement.getRows());
+        }
+
+        private Timer timer(String name, String method) {
+            return Timer.builder(name)
+                    .tag("method", method)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        private DistributionSummary summary(String name, String method) {
+            return DistributionSummary.builder(name)
+                    .tag("method", method)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package study.datajpa.monitor;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 모든 레포지토리 메소드 호출을 감싸서 측정한다.
+ *  - this(Repository): 스프링 데이터 JPA가 만든 레포지토리 (MemberRepository, 사용자 정의 메소드 포함)
+ *  - @within(Repository): @Repository를 붙인 순수 JPA 레포지토리 (MemberJpaRepository ...)
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final RepositoryMetrics repositoryMetrics;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("this(org.springframework.data.repository.Repository) " +
+            "|| @within(org.springframework.stereotype.Repository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = methodName(joinPoint);
+        QueryMetricsContext.Measurement measurement = QueryMetricsContext.start(method);
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            QueryMetricsContext.end(measurement);
+            repositoryMetrics.record(method, elapsed, measurement);
+        }
+    }
+
+    private String methodName(ProceedingJoinPoint joinPoint) {
+        Object proxy = joinPoint.getThis();
+        String repository = repositoryNames.computeIfAbsent(proxy.getClass(), type -> repositoryName(joinPoint));
+        return repository + "." + joinPoint.getSignature().getName();
+    }
+
+    //? 스프링 데이터 레포지토리는 프록시라서 실제 클래스 대신 우리가 만든 인터페이스 이름을 찾는다.
+    private String repositoryName(ProceedingJoinPoint joinPoint) {
+        if (joinPoint.getThis() instanceof Repository) {
+            for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis())) {
+                if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework")) {
+                    return type.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName();
+    }
+}
@@ -0,0 +1,46 @@
+package study.datajpa.monitor;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/repositorymetrics
+ * 레포지토리 메소드별 누적 호출 수, 쿼리 수, 행 수, 평균 시간(ms)을 보여준다.
+ * => SQL 로그를 뒤지지 않고 어떤 메소드가 느려졌는지 바로 확인
+ */
+@Component
+@Endpoint(id = "repositorymetrics")
+@RequiredArgsConstructor
+public class RepositoryMetricsEndpoint {
+
+    private final RepositoryMetrics repositoryMetrics;
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> methods() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        repositoryMetrics.snapshot().forEach((method, metrics) -> {
+            long invocations = metrics.getInvocations().sum();
+            long totalNanos = metrics.getTotalNanos().sum();
+            long jdbcNanos = metrics.getJdbcNanos().sum();
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("invocations", invocations);
+            stats.put("statements", metrics.getStatements().sum());
+            stats.put("rows", metrics.getRows().sum());
+            stats.put("avgTimeMs", average(totalNanos, invocations));
+            stats.put("avgJdbcMs", average(jdbcNanos, invocations));
+            stats.put("avgHydrationMs", average(totalNanos - jdbcNanos, invocations));
+            result.put(method, stats);
+        });
+        return result;
+    }
+
+    private double average(long nanos, long count) {
+        return count == 0 ? 0 : nanos / 1_000_000.0 / count;
+    }
+}
@@ -0,0 +1,98 @@
+package study.datajpa.projection;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * 인터페이스 프로젝션의 구현 클래스를 바이트코드로 만든다. (스프링 코어에 포함된 ASM 사용)
+ *
+ * 만들어지는 클래스
+ *   final class XxxProjection$$Projection implements XxxProjection {
+ *       private final Object[] values;
+ *       XxxProjection$$Projection(Object[] values) { this.values = values; }
+ *       public String getUsername() { return (String) values[0]; }
+ *       ...
+ *   }
+ * getter는 배열에서 꺼내서 캐스팅만 하기 때문에 프록시 + 메소드 인터셉터보다 훨씬 가볍다.
+ * 히든 클래스로 정의해서 같은 JVM에서 컨텍스트를 여러번 띄워도 클래스 이름이 충돌하지 않는다.
+ */
+final class InterfaceProjectionGenerator implements Opcodes {
+
+    private static final String VALUES = "values";
+    private static final String VALUES_DESCRIPTOR = "[Ljava/lang/Object;";
+
+    private InterfaceProjectionGenerator() {
+    }
+
+    /**
+     * @return (Object[]) -> 구현 클래스 인스턴스 생성 MethodHandle
+     */
+    static MethodHandle generate(Class<?> type, List<Method> getters) {
+        String owner = Type.getInternalName(type) + "$$Projection";
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS); // 분기가 없어서 스택맵 프레임은 필요 없음
+        cw.visit(V17, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, owner, null,
+                "java/lang/Object", new String[]{Type.getInternalName(type)});
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, VALUES, VALUES_DESCRIPTOR, null, null).visitEnd();
+
+        MethodVisitor init = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + VALUES_DESCRIPTOR + ")V", null, null);
+        init.visitCode();
+        init.visitVarInsn(ALOAD, 0);
+        init.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitVarInsn(ALOAD, 0);
+        init.visitVarInsn(ALOAD, 1);
+        init.visitFieldInsn(PUTFIELD, owner, VALUES, VALUES_DESCRIPTOR);
+        init.visitInsn(RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        for (int i = 0; i < getters.size(); i++) {
+            Method getter = getters.get(i);
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, getter.getName(), Type.getMethodDescriptor(getter), null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, owner, VALUES, VALUES_DESCRIPTOR);
+            mv.visitLdcInsn(i);
+            mv.visitInsn(AALOAD);
+            convert(mv, getter.getReturnType());
+            mv.visitInsn(Type.getType(getter.getReturnType()).getOpcode(IRETURN));
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                    .defineHiddenClass(cw.toByteArray(), true);
+            return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, Object[].class))
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("프로젝션 구현 클래스를 만들 수 없습니다: " + type.getName(), e);
+        }
+    }
+
+    //? 기본 타입은 Number/Boolean/Character에서 꺼낸다. (count 결과 Long -> int 등 숫자 타입이 달라도 변환)
+    private static void convert(MethodVisitor mv, Class<?> returnType) {
+        if (returnType == boolean.class) {
+            mv.visitTypeInsn(CHECKCAST, "java/lang/Boolean");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z", false);
+        } else if (returnType == char.class) {
+            mv.visitTypeInsn(CHECKCAST, "java/lang/Character");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Character", "charValue", "()C", false);
+        } else if (returnType.isPrimitive()) {
+            mv.visitTypeInsn(CHECKCAST, "java/lang/Number");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Number", returnType.getName() + "Value",
+                    "()" + Type.getDescriptor(returnType), false);
+        } else if (returnType != Object.class) {
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(returnType));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package study.datajpa.projection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * 오픈 프로젝션 @Value 식 중 문자열 이어붙이기만 미리 해석한다.
+ *   #{target.username + ' ' + target.age}
+ *   => username, age 컬럼만 조회하고 행마다 SpEL 평가 없이 이어붙인다.
+ * 그 외의 식(메소드 호출, 연산 등)은 시작 시점에 예외 - 스프링 데이터 프로젝션(findProjectionsByUsername)을 사용
+ */
+final class OpenProjectionExpression {
+
+    private static final String TARGET = "target.";
+
+    private OpenProjectionExpression() {
+    }
+
+    /**
+     * @param column     target 속성 경로 -> 행의 컬럼 위치
+     * @param stringType target 속성 경로가 문자열 타입인지
+     */
+    static Function<Object[], Object> compile(String expression, ToIntFunction<String> column,
+                                              Predicate<String> stringType) {
+        String body = expression.trim();
+        if (!body.startsWith("#{") || !body.endsWith("}")) {
+            throw unsupported(expression);
+        }
+
+        List<Function<Object[], Object>> terms = new ArrayList<>();
+        List<Boolean> strings = new ArrayList<>();
+        for (String term : split(body.substring(2, body.length() - 1), expression)) {
+            if (term.startsWith("'") && term.endsWith("'") && term.length() >= 2) {
+                String literal = term.substring(1, term.length() - 1).replace("''", "'");
+                terms.add(row -> literal);
+                strings.add(true);
+            } else if (term.startsWith(TARGET) && term.substring(TARGET.length()).matches("[\\w.]+")) {
+                String path = term.substring(TARGET.length());
+                int index = column.applyAsInt(path);
+                terms.add(row -> row[index]);
+                strings.add(stringType.test(path));
+            } else {
+                throw unsupported(expression);
+            }
+        }
+
+        if (terms.size() == 1) {
+            return terms.get(0);
+        }
+        //? SpEL의 +는 왼쪽부터 계산 - 앞의 두 항이 모두 숫자면 덧셈이 되기 때문에 지원하지 않는다.
+        if (!strings.get(0) && !strings.get(1)) {
+            throw unsupported(expression);
+        }
+        return row -> {
+            StringBuilder sb = new StringBuilder();
+            for (Function<Object[], Object> term : terms) {
+                sb.append(term.apply(row));
+            }
+            return sb.toString();
+        };
+    }
+
+    //* 따옴표 밖의 + 기준으로 나눈다.
+    private static List<String> split(String body, String expression) {
+        List<String> terms = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (char c : body.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '+' && !quoted) {
+                terms.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw unsupported(expression);
+        }
+        terms.add(current.toString().trim());
+        return terms;
+    }
+
+    private static IllegalArgumentException unsupported(String expression) {
+        return new IllegalArgumentException("지원하지 않는 오픈 프로젝션 식입니다: " + expression);
+    }
+}
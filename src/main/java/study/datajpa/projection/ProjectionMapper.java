@@ -0,0 +1,52 @@
+package study.datajpa.projection;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 조회 결과 한 행(Object[])을 프로젝션 타입으로 바로 변환하는 매퍼
+ * ProjectionMapperRegistry가 애플리케이션 시작 시점에 프로젝션 타입마다 한번 만들어 둔다.
+ *
+ * 스프링 데이터 프로젝션과 다르게
+ *  - 행마다 프록시 + 리플렉션을 거치지 않음 (생성된 구현 클래스/생성자 MethodHandle을 바로 호출)
+ *  - 오픈 프로젝션(@Value)도 엔티티 전체가 아니라 식에 필요한 컬럼만 조회
+ */
+public final class ProjectionMapper<T> {
+
+    //* 쿼리에서 사용하는 루트 엔티티 별칭 - where 조건은 이 별칭으로 작성한다.
+    public static final String ROOT_ALIAS = "m";
+
+    private final Class<T> type;
+    private final List<String> paths;
+    private final String selectFrom;
+    private final Function<Object[], Object> reader;
+
+    ProjectionMapper(Class<T> type, List<String> paths, String selectFrom, Function<Object[], Object> reader) {
+        this.type = type;
+        this.paths = List.copyOf(paths);
+        this.selectFrom = selectFrom;
+        this.reader = reader;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    //* 조회하는 컬럼(엔티티 기준 속성 경로) - 행의 순서와 같다.
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * 프로젝션에 필요한 컬럼만 조회하는 JPQL
+     * ex) jpql("m.username = :username")
+     *  => select m.username, j_team.name from Member m left join m.team j_team where m.username = :username
+     */
+    public String jpql(String where) {
+        return where == null ? selectFrom : selectFrom + " where " + where;
+    }
+
+    public T map(Object[] row) {
+        return type.cast(reader.apply(row));
+    }
+}
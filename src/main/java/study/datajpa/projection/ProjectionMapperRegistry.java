@@ -0,0 +1,263 @@
+package study.datajpa.projection;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 엔티티 + 프로젝션 타입마다 ProjectionMapper를 한번만 만들어서 보관
+ *
+ * 지원하는 프로젝션
+ *  - 클래스/레코드: 생성자 파라미터 이름으로 속성을 찾고 생성자 MethodHandle로 생성 (UsernameOnlyDto, MemberDto...)
+ *  - 인터페이스(클로즈): getter 이름으로 속성을 찾고 바이트코드로 만든 구현 클래스로 생성
+ *      중첩 인터페이스(NestedClosedProjections.TeamInfo)는 연관 엔티티를 left join 해서 컬럼만 조회
+ *      teamName 처럼 카멜케이스로 이어진 이름은 스프링 데이터 규칙대로 team.name으로 해석
+ *  - 인터페이스(오픈): @Value("#{target.a + ' ' + target.b}") 형태의 문자열 이어붙이기
+ * 속성을 찾을 수 없으면 만드는 시점(애플리케이션 시작)에 예외가 발생한다.
+ */
+@Component
+public class ProjectionMapperRegistry {
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final Metamodel metamodel;
+    private final Map<Key, ProjectionMapper<?>> mappers = new ConcurrentHashMap<>();
+
+    public ProjectionMapperRegistry(EntityManagerFactory entityManagerFactory) {
+        this.metamodel = entityManagerFactory.getMetamodel();
+    }
+
+    //* 미리 만들어두기 - 애플리케이션 시작 시점에 호출해서 잘못된 프로젝션을 빨리 발견하고 첫 요청 지연을 없앤다.
+    public void register(Class<?> entityClass, Class<?>... types) {
+        for (Class<?> type : types) {
+            mapper(entityClass, type);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> ProjectionMapper<T> mapper(Class<?> entityClass, Class<T> type) {
+        return (ProjectionMapper<T>) mappers.computeIfAbsent(new Key(entityClass, type), key -> create(entityClass, type));
+    }
+
+    private <T> ProjectionMapper<T> create(Class<?> entityClass, Class<T> type) {
+        Columns columns = new Columns();
+        Function<Object[], Object> reader = reader(entityClass, "", type, columns);
+        return new ProjectionMapper<>(type, columns.paths, selectFrom(entityClass, columns.paths), reader);
+    }
+
+    private Function<Object[], Object> reader(Class<?> entityClass, String prefix, Class<?> type, Columns columns) {
+        return type.isInterface()
+                ? interfaceReader(entityClass, prefix, type, columns)
+                : constructorReader(entityClass, prefix, type, columns);
+    }
+
+    private Function<Object[], Object> interfaceReader(Class<?> entityClass, String prefix, Class<?> type, Columns columns) {
+        List<Method> getters = Arrays.stream(type.getMethods())
+                .filter(method -> Modifier.isAbstract(method.getModifiers()))
+                .filter(method -> method.getParameterCount() == 0 && method.getReturnType() != void.class)
+                .sorted(Comparator.comparing(Method::getName))
+                .toList();
+
+        List<Function<Object[], Object>> readers = new ArrayList<>();
+        int[] direct = new int[getters.size()];
+        for (int i = 0; i < getters.size(); i++) {
+            Method getter = getters.get(i);
+            Value open = getter.getAnnotation(Value.class);
+            Function<Object[], Object> reader;
+            if (open != null) {
+                reader = OpenProjectionExpression.compile(open.value(),
+                        path -> columns.add(prefix + resolve(entityClass, path).toDotPath()),
+                        path -> resolve(entityClass, path).getLeafProperty().getType() == String.class);
+                direct[i] = -1;
+            } else {
+                reader = propertyReader(entityClass, prefix, propertyName(getter), getter.getReturnType(), columns);
+                direct[i] = columns.lastDirect;
+            }
+            readers.add(reader);
+        }
+
+        MethodHandle constructor = InterfaceProjectionGenerator.generate(type, getters);
+
+        //? getter 순서와 조회 컬럼 순서가 같으면 행 배열을 그대로 넘긴다. (복사 없음)
+        boolean identity = prefix.isEmpty() && direct.length == columns.paths.size();
+        for (int i = 0; identity && i < direct.length; i++) {
+            identity = direct[i] == i;
+        }
+        if (identity) {
+            return row -> newInstance(constructor, row);
+        }
+        return row -> {
+            Object[] values = new Object[readers.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readers.get(i).apply(row);
+            }
+            return newInstance(constructor, values);
+        };
+    }
+
+    private Function<Object[], Object> constructorReader(Class<?> entityClass, String prefix, Class<?> type, Columns columns) {
+        Constructor<?>[] constructors = type.getConstructors();
+        if (constructors.length != 1) {
+            throw new IllegalArgumentException("생성자가 하나인 클래스만 프로젝션으로 사용할 수 있습니다: " + type.getName());
+        }
+        Constructor<?> constructor = constructors[0];
+        String[] names = PARAMETER_NAMES.getParameterNames(constructor);
+        if (names == null) {
+            throw new IllegalArgumentException("생성자 파라미터 이름을 알 수 없습니다(-parameters 컴파일 옵션 필요): " + type.getName());
+        }
+
+        List<Function<Object[], Object>> readers = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            readers.add(propertyReader(entityClass, prefix, names[i], constructor.getParameterTypes()[i], columns));
+        }
+
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, names.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("생성자에 접근할 수 없습니다: " + type.getName(), e);
+        }
+        return row -> {
+            Object[] values = new Object[readers.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readers.get(i).apply(row);
+            }
+            return newInstance(handle, values);
+        };
+    }
+
+    private Function<Object[], Object> propertyReader(Class<?> entityClass, String prefix, String name,
+                                                      Class<?> targetType, Columns columns) {
+        PropertyPath path = resolve(entityClass, name);
+        Class<?> propertyType = path.getLeafProperty().getType();
+
+        //? 연관 엔티티를 다른 프로젝션 타입으로 받는 경우 (TeamInfo getTeam()) - 연관 엔티티의 컬럼으로 중첩 매핑
+        if (!targetType.isPrimitive() && !targetType.isAssignableFrom(propertyType) && isManaged(propertyType)) {
+            int from = columns.paths.size();
+            Function<Object[], Object> nested = reader(propertyType, prefix + path.toDotPath() + ".", targetType, columns);
+            int to = columns.paths.size();
+            columns.lastDirect = -1;
+            //? left join 대상이 없으면 (팀이 없는 회원) 중첩 프로젝션도 null
+            return row -> {
+                for (int i = from; i < to; i++) {
+                    if (row[i] != null) {
+                        return nested.apply(row);
+                    }
+                }
+                return to == from ? nested.apply(row) : null;
+            };
+        }
+
+        int index = columns.add(prefix + path.toDotPath());
+        columns.lastDirect = prefix.isEmpty() ? index : -1;
+        return row -> row[index];
+    }
+
+    private static PropertyPath resolve(Class<?> entityClass, String name) {
+        return PropertyPath.from(name, entityClass);
+    }
+
+    private static String propertyName(Method getter) {
+        String name = getter.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return Character.toLowerCase(name.charAt(3)) + name.substring(4);
+        }
+        if (name.startsWith("is") && name.length() > 2) {
+            return Character.toLowerCase(name.charAt(2)) + name.substring(3);
+        }
+        return name;
+    }
+
+    private boolean isManaged(Class<?> type) {
+        try {
+            metamodel.managedType(type);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * select 절과 연관 엔티티 left join을 만든다.
+     * 연관관계를 지나는 경로(team.name)는 j_team 별칭으로 조인 - 팀이 없는 회원도 조회되도록 left join
+     */
+    private String selectFrom(Class<?> entityClass, List<String> paths) {
+        Map<String, String> joins = new LinkedHashMap<>();
+        List<String> select = new ArrayList<>();
+        for (String path : paths) {
+            String[] segments = path.split("\\.");
+            String alias = ProjectionMapper.ROOT_ALIAS;
+            String joinPath = "";
+            ManagedType<?> current = metamodel.managedType(entityClass);
+            StringBuilder item = new StringBuilder();
+            for (int i = 0; i < segments.length; i++) {
+                Attribute<?, ?> attribute = current.getAttribute(segments[i]);
+                if (attribute.isCollection()) {
+                    throw new IllegalArgumentException("컬렉션은 프로젝션할 수 없습니다: " + path);
+                }
+                if (attribute.isAssociation()) {
+                    joinPath = joinPath.isEmpty() ? segments[i] : joinPath + "_" + segments[i];
+                    String joinAlias = "j_" + joinPath;
+                    joins.putIfAbsent(joinAlias, " left join " + alias + item + "." + segments[i] + " " + joinAlias);
+                    alias = joinAlias;
+                    item.setLength(0);
+                } else {
+                    item.append(".").append(segments[i]);
+                }
+                if (i < segments.length - 1) {
+                    current = metamodel.managedType(attribute.getJavaType());
+                }
+            }
+            select.add(alias + item);
+        }
+        return "select " + String.join(", ", select) +
+                " from " + metamodel.entity(entityClass).getName() + " " + ProjectionMapper.ROOT_ALIAS +
+                String.join("", joins.values());
+    }
+
+    private static Object newInstance(MethodHandle constructor, Object[] values) {
+        try {
+            return (Object) constructor.invokeExact(values);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //* 조회할 컬럼 목록 - 같은 경로는 한번만 조회
+    private static final class Columns {
+        private final List<String> paths = new ArrayList<>();
+        private int lastDirect = -1;
+
+        int add(String path) {
+            int index = paths.indexOf(path);
+            if (index < 0) {
+                paths.add(path);
+                index = paths.size() - 1;
+            }
+            return index;
+        }
+    }
+
+    private record Key(Class<?> entityClass, Class<?> type) {
+    }
+}
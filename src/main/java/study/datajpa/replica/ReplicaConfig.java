@@ -0,0 +1,74 @@
+package study.datajpa.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * replica 프로필: 읽기 전용 트랜잭션은 replica, 나머지는 primary
+ *
+ * LazyConnectionDataSourceProxy는 실제 쿼리를 실행할 때까지 커넥션 획득을 미룬다.
+ * 읽기 전용 트랜잭션은 시작할 때 Connection.setReadOnly(true)를 호출하기 때문에
+ * 그 시점에 readOnlyDataSource(replica 풀)에서 커넥션을 꺼내게 된다.
+ *  => @ReadOnlyRepository 조회 메소드(Page/Slice, readOnly 힌트 쿼리 포함)는 replica
+ *  => save, 벌크 수정(@Modifying), findLockByUsername은 @Transactional(쓰기)이라 primary
+ *  => 쓰기 트랜잭션 안에서 호출된 조회는 그 트랜잭션의 커넥션(primary)을 그대로 사용
+ */
+@Configuration
+@Profile("replica")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaStalenessPolicy replicaStalenessPolicy(ReplicaProperties properties) {
+        return new ReplicaStalenessPolicy(properties.getMaxStaleness());
+    }
+
+    @Bean
+    public ReplicaPoolDataSource replicaDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            ReplicaStalenessPolicy stalenessPolicy,
+            ReplicaProperties properties
+    ) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (i + 1));
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+        return new ReplicaPoolDataSource(primaryDataSource, replicas, stalenessPolicy, properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource
+    ) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,133 @@
+package study.datajpa.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 읽기 전용 커넥션을 내주는 replica 풀
+ * 정상(healthy) replica를 돌아가며 사용하고, 사용할 수 있는 replica가 없으면 primary를 사용한다.
+ *  - 주기적으로 커넥션 검사 + (설정 시) 복제 지연 검사
+ *  - 커넥션 획득에 실패한 replica는 다음 검사까지 제외
+ *  - 복제 지연 정책(ReplicaStalenessPolicy)이 허용하지 않으면 primary
+ */
+@Slf4j
+public class ReplicaPoolDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final ReplicaStalenessPolicy stalenessPolicy;
+    private final ReplicaProperties properties;
+
+    private volatile List<DataSource> healthy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong replicaConnections = new AtomicLong();
+    private final AtomicLong primaryFallbacks = new AtomicLong();
+
+    public ReplicaPoolDataSource(DataSource primary, List<DataSource> replicas,
+                                 ReplicaStalenessPolicy stalenessPolicy, ReplicaProperties properties) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthy = this.replicas;
+        this.stalenessPolicy = stalenessPolicy;
+        this.properties = properties;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (stalenessPolicy.replicaReadAllowed()) {
+            List<DataSource> candidates = healthy;
+            for (int i = 0; i < candidates.size(); i++) {
+                DataSource replica = candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+                try {
+                    Connection connection = replica.getConnection();
+                    replicaConnections.incrementAndGet();
+                    return connection;
+                } catch (SQLException e) {
+                    log.warn("replica connection failed - excluded until next health check", e);
+                    markUnhealthy(replica);
+                }
+            }
+        }
+        primaryFallbacks.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    //? replica마다 설정된 계정을 사용한다. (히카리와 같이 다른 계정의 커넥션은 지원하지 않음)
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("replica pool uses configured credentials");
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.replica.health-check-interval:5s}")
+    public void checkHealth() {
+        List<DataSource> checked = new ArrayList<>();
+        for (DataSource replica : replicas) {
+            if (isHealthy(replica)) {
+                checked.add(replica);
+            }
+        }
+        if (checked.size() != healthy.size()) {
+            log.info("healthy replicas {}/{}", checked.size(), replicas.size());
+        }
+        healthy = List.copyOf(checked);
+    }
+
+    private boolean isHealthy(DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid((int) Math.max(1, properties.getValidationTimeout().toSeconds()))) {
+                return false;
+            }
+            if (properties.getLagQuery() == null) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+                //? 지연 값이 null이면 (복제 이력이 없는 경우 등) 지연 없음으로 본다.
+                return !resultSet.next() || stalenessPolicy.acceptableLag(resultSet.getDouble(1));
+            }
+        } catch (SQLException e) {
+            log.debug("replica health check failed", e);
+            return false;
+        }
+    }
+
+    private synchronized void markUnhealthy(DataSource replica) {
+        List<DataSource> remaining = new ArrayList<>(healthy);
+        remaining.remove(replica);
+        healthy = List.copyOf(remaining);
+    }
+
+    public int getHealthyReplicaCount() {
+        return healthy.size();
+    }
+
+    public long getReplicaConnections() {
+        return replicaConnections.get();
+    }
+
+    public long getPrimaryFallbacks() {
+        return primaryFallbacks.get();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package study.datajpa.replica;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.replica")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * 허용하는 복제 지연
+     *  - 쓰기 트랜잭션 커밋 후 이 시간 동안은 쓴 클라이언트(요청 밖이면 스레드)의 읽기도 primary로 (방금 쓴 데이터를 바로 읽을 수 있도록)
+     *  - lag-query로 잰 복제 지연이 이 시간을 넘는 replica는 사용하지 않음
+     * 0이면 커밋 직후에도 replica에서 읽는다.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(1);
+
+    //* replica 상태 확인 주기
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    //* 커넥션 검사(Connection.isValid) 제한 시간
+    private Duration validationTimeout = Duration.ofSeconds(1);
+
+    /**
+     * 복제 지연(초)을 조회하는 쿼리 - DB마다 다르기 때문에 선택
+     * 예) PostgreSQL: select extract(epoch from now() - pg_last_xact_replay_timestamp())
+     */
+    private String lagQuery;
+
+    @Getter @Setter
+    public static class Replica {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+    }
+}
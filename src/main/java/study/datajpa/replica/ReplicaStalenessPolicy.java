@@ -0,0 +1,108 @@
+package study.datajpa.replica;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * 복제 지연 정책 - 쓰기 트랜잭션이 커밋된 직후에는 replica에 아직 반영되지 않았을 수 있기 때문에
+ * max-staleness 동안은 방금 쓴 쪽(클라이언트)의 읽기 전용 트랜잭션도 primary를 사용한다. (read-your-writes)
+ *
+ * 쓴 쪽만 primary로 보낸다. - 전역으로 막으면 쓰기가 계속 들어오는 동안 모든 읽기가 primary로 몰려서 replica를 쓰지 못한다.
+ * 쓴 시각(마지막 쓰기 커밋 시각)을 어디에 남기는지
+ *  - 웹 요청: 요청 속성 + 쿠키(LAST_WRITE_COOKIE) - 다음 요청이 다른 스레드에서 실행돼도 같은 클라이언트면 primary
+ *    스레드에 남기지 않기 때문에 쓴 요청의 스레드를 이어받은 다른 요청은 영향을 받지 않는다.
+ *  - 요청 밖(배치, 스케줄러 등): 스레드 - ! 같은 스레드 안에서만 보장된다.
+ * 다른 클라이언트의 읽기는 replica를 사용하고, 복제 지연 자체는 lag-query 검사로 replica를 제외해서 막는다.
+ *
+ * TransactionExecutionListener 빈은 스프링 부트가 트랜잭션 매니저에 자동으로 등록해준다.
+ */
+public class ReplicaStalenessPolicy implements TransactionExecutionListener {
+
+    public static final String LAST_WRITE_COOKIE = "datajpa-last-write";
+    private static final String LAST_WRITE_ATTRIBUTE = ReplicaStalenessPolicy.class.getName() + ".lastWrite";
+    private static final long NOT_WRITTEN = Long.MIN_VALUE;
+
+    private final long maxStalenessMillis;
+    //? 요청 밖에서 마지막으로 쓰기 트랜잭션을 커밋한 시각
+    private final ThreadLocal<long[]> threadLastWrite = ThreadLocal.withInitial(() -> new long[]{NOT_WRITTEN});
+
+    public ReplicaStalenessPolicy(Duration maxStaleness) {
+        this.maxStalenessMillis = maxStaleness.toMillis();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (maxStalenessMillis > 0 && commitFailure == null && transaction.isNewTransaction() && !transaction.isReadOnly()) {
+            markWrite(System.currentTimeMillis());
+        }
+    }
+
+    public boolean replicaReadAllowed() {
+        if (maxStalenessMillis == 0) {
+            return true;
+        }
+        long lastWrite = lastWrite();
+        return lastWrite == NOT_WRITTEN || System.currentTimeMillis() - lastWrite > maxStalenessMillis;
+    }
+
+    //* lag-query로 잰 복제 지연이 허용 범위인지
+    public boolean acceptableLag(double lagSeconds) {
+        return maxStalenessMillis == 0 || lagSeconds * 1_000 <= maxStalenessMillis;
+    }
+
+    private void markWrite(long now) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            threadLastWrite.get()[0] = now;
+            return;
+        }
+        attributes.setAttribute(LAST_WRITE_ATTRIBUTE, now, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (maxStalenessMillis + 999) / 1_000));
+            response.addCookie(cookie);
+        }
+    }
+
+    private long lastWrite() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            long[] lastWrite = threadLastWrite.get();
+            if (lastWrite[0] != NOT_WRITTEN && System.currentTimeMillis() - lastWrite[0] > maxStalenessMillis) {
+                threadLastWrite.remove(); // 지난 표시는 지운다.
+                return NOT_WRITTEN;
+            }
+            return lastWrite[0];
+        }
+        if (attributes.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long lastWrite) {
+            return lastWrite;
+        }
+        return cookieLastWrite(attributes.getRequest());
+    }
+
+    private static long cookieLastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return NOT_WRITTEN;
+        }
+        for (Cookie cookie : cookies) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return NOT_WRITTEN; // 잘못된 값은 무시
+                }
+            }
+        }
+        return NOT_WRITTEN;
+    }
+}
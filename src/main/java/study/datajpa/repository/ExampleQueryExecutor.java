@@ -0,0 +1,242 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.*;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Query By Example 실행기
+ * 스프링 데이터의 QBE(findAll(Example))는 호출마다 probe의 필드를 리플렉션으로 다시 훑는다.
+ *  - 엔티티 타입별 probe 메타데이터(속성, getter MethodHandle, 컬럼, 인덱스 여부)를 한번만 만들어서 재사용
+ *  - 연관관계 probe가 null이면 조인하지 않는다. (값이 있을 때만 inner join)
+ *  - contains/ending/ignoreCase 처럼 인덱스를 탈 수 없는 조건이 인덱스 없는 컬럼에 걸리면 경고 또는 거부
+ *    (datajpa.qbe.non-sargable: warn | reject)
+ * 인덱스는 엔티티의 @Table(indexes)의 첫 번째 컬럼과 식별자 컬럼만 인식한다.
+ */
+@Slf4j
+@Component
+public class ExampleQueryExecutor {
+
+    public enum NonSargablePolicy {
+        WARN, REJECT
+    }
+
+    private static final char ESCAPE = '!'; // 역슬래시는 HQL 문자열 리터럴에서 이스케이프 문자라 사용하지 않음
+
+    private final EntityManager em;
+    private final NonSargablePolicy nonSargablePolicy;
+    private final Map<Class<?>, ProbeMetadata> metadata = new ConcurrentHashMap<>();
+    private final Set<String> warned = ConcurrentHashMap.newKeySet();
+
+    public ExampleQueryExecutor(EntityManager em,
+                                @Value("${datajpa.qbe.non-sargable:warn}") NonSargablePolicy nonSargablePolicy) {
+        this.em = em;
+        this.nonSargablePolicy = nonSargablePolicy;
+    }
+
+    public <T> List<T> findAll(Example<T> example) {
+        ProbeMetadata root = metadata(example.getProbeType());
+        QueryParts parts = new QueryParts(new ExampleMatcherAccessor(example.getMatcher()));
+        collect(root, example.getProbe(), "", "m", example.getMatcher(), parts);
+
+        StringBuilder jpql = new StringBuilder("select m from ").append(root.entityName()).append(" m");
+        parts.joins.forEach(jpql::append);
+        if (!parts.predicates.isEmpty()) {
+            String operator = example.getMatcher().isAllMatching() ? " and " : " or ";
+            jpql.append(" where ").append(String.join(operator, parts.predicates));
+        }
+
+        TypedQuery<T> query = em.createQuery(jpql.toString(), example.getProbeType());
+        for (int i = 0; i < parts.values.size(); i++) {
+            query.setParameter("p" + i, parts.values.get(i));
+        }
+        return query.getResultList();
+    }
+
+    private void collect(ProbeMetadata probeMetadata, Object probe, String prefix, String alias,
+                         ExampleMatcher matcher, QueryParts parts) {
+        for (ProbeAttribute attribute : probeMetadata.attributes()) {
+            String path = prefix.isEmpty() ? attribute.name() : prefix + "." + attribute.name();
+            if (matcher.isIgnoredPath(path)) {
+                continue;
+            }
+
+            Object value = attribute.read(probe);
+            if (parts.accessor.hasPropertySpecifier(path)) {
+                value = parts.accessor.getValueTransformerForPath(path).apply(Optional.ofNullable(value)).orElse(null);
+            }
+            String property = alias + "." + attribute.name();
+
+            if (value == null) {
+                if (matcher.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    parts.predicates.add(property + " is null");
+                }
+                continue;
+            }
+            //? 연관관계는 probe에 값이 있을 때만 조인
+            if (attribute.association()) {
+                String joinAlias = alias + "_" + attribute.name();
+                parts.joins.add(" join " + property + " " + joinAlias);
+                collect(metadata(attribute.type()), Hibernate.unproxy(value), path, joinAlias, matcher, parts);
+                continue;
+            }
+            if (value instanceof String text) {
+                parts.predicates.add(stringPredicate(probeMetadata, attribute, path, property, text, parts));
+            } else {
+                parts.predicates.add(property + " = " + parts.bind(value));
+            }
+        }
+    }
+
+    private String stringPredicate(ProbeMetadata probeMetadata, ProbeAttribute attribute, String path,
+                                   String property, String text, QueryParts parts) {
+        ExampleMatcher.StringMatcher stringMatcher = parts.accessor.getStringMatcherForPath(path);
+        boolean ignoreCase = parts.accessor.isIgnoreCaseForPath(path);
+
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+            throw new IllegalArgumentException("정규식 매칭은 지원하지 않습니다: " + path);
+        }
+        boolean sargable = !ignoreCase
+                && stringMatcher != ExampleMatcher.StringMatcher.CONTAINING
+                && stringMatcher != ExampleMatcher.StringMatcher.ENDING;
+        if (!sargable && !attribute.indexed()) {
+            nonSargable(probeMetadata.entityName(), path, attribute.column(), stringMatcher, ignoreCase);
+        }
+
+        String column = ignoreCase ? "lower(" + property + ")" : property;
+        String value = ignoreCase ? text.toLowerCase(Locale.ROOT) : text;
+        return switch (stringMatcher) {
+            case STARTING -> column + " like " + parts.bind(escape(value) + "%") + " escape '" + ESCAPE + "'";
+            case ENDING -> column + " like " + parts.bind("%" + escape(value)) + " escape '" + ESCAPE + "'";
+            case CONTAINING -> column + " like " + parts.bind("%" + escape(value) + "%") + " escape '" + ESCAPE + "'";
+            default -> column + " = " + parts.bind(value);
+        };
+    }
+
+    private void nonSargable(String entityName, String path, String column,
+                             ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase) {
+        String message = entityName + "." + path + "(" + column + ") " + stringMatcher + (ignoreCase ? " ignoreCase" : "")
+                + " - 인덱스가 없는 컬럼에 인덱스를 사용할 수 없는 조건이라 전체 스캔이 발생합니다.";
+        if (nonSargablePolicy == NonSargablePolicy.REJECT) {
+            throw new IllegalArgumentException(message);
+        }
+        if (warned.add(message)) {
+            log.warn(message);
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace(String.valueOf(ESCAPE), "" + ESCAPE + ESCAPE)
+                .replace("%", ESCAPE + "%")
+                .replace("_", ESCAPE + "_");
+    }
+
+    private ProbeMetadata metadata(Class<?> type) {
+        return metadata.computeIfAbsent(type, this::inspect);
+    }
+
+    private ProbeMetadata inspect(Class<?> type) {
+        EntityType<?> entity = em.getMetamodel().entity(type);
+        Set<String> indexed = indexedColumns(type);
+
+        List<ProbeAttribute> attributes = new ArrayList<>();
+        for (SingularAttribute<?, ?> attribute : entity.getSingularAttributes()) {
+            if (!(attribute.getJavaMember() instanceof Field field)) {
+                continue;
+            }
+            String column = columnName(field, attribute.isAssociation());
+            if (attribute.isId()) {
+                indexed.add(column);
+            }
+            attributes.add(new ProbeAttribute(attribute.getName(), column, getter(field),
+                    attribute.getJavaType(), attribute.isAssociation(), indexed.contains(column)));
+        }
+        //? 속성 순서를 고정해서 같은 조건이면 항상 같은 JPQL이 만들어지도록 (쿼리 플랜 캐시 재사용)
+        attributes.sort(Comparator.comparing(ProbeAttribute::name));
+        return new ProbeMetadata(entity.getName(), List.copyOf(attributes));
+    }
+
+    private static Set<String> indexedColumns(Class<?> type) {
+        Set<String> columns = new HashSet<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            Table table = current.getAnnotation(Table.class);
+            if (table != null) {
+                for (Index index : table.indexes()) {
+                    columns.add(index.columnList().split(",")[0].trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return columns;
+    }
+
+    //? 스프링 부트 기본 네이밍 전략(카멜케이스 -> 스네이크케이스)을 따른다.
+    private static String columnName(Field field, boolean association) {
+        if (association) {
+            JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+            return joinColumn != null && !joinColumn.name().isEmpty() ? joinColumn.name() : snakeCase(field.getName()) + "_id";
+        }
+        Column column = field.getAnnotation(Column.class);
+        return column != null && !column.name().isEmpty() ? column.name() : snakeCase(field.getName());
+    }
+
+    private static String snakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+
+    private static MethodHandle getter(Field field) {
+        try {
+            return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("probe 필드에 접근할 수 없습니다: " + field, e);
+        }
+    }
+
+    private record ProbeMetadata(String entityName, List<ProbeAttribute> attributes) {
+    }
+
+    private record ProbeAttribute(String name, String column, MethodHandle getter, Class<?> type,
+                                  boolean association, boolean indexed) {
+
+        Object read(Object probe) {
+            try {
+                return (Object) getter.invokeExact(probe);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class QueryParts {
+        private final ExampleMatcherAccessor accessor;
+        private final List<String> joins = new ArrayList<>();
+        private final List<String> predicates = new ArrayList<>();
+        private final List<Object> values = new ArrayList<>();
+
+        private QueryParts(ExampleMatcherAccessor accessor) {
+            this.accessor = accessor;
+        }
+
+        String bind(Object value) {
+            values.add(value);
+            return ":p" + (values.size() - 1);
+        }
+    }
+}
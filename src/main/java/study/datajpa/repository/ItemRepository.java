@@ -3,5 +3,6 @@ package study.datajpa.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import study.datajpa.entity.Item;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+//? Item의 식별자는 String - upsertAll: merge(select 후 저장) 없이 MERGE 문 배치로 저장/수정
+public interface ItemRepository extends JpaRepository<Item, String>, UpsertRepository<Item> {
 }
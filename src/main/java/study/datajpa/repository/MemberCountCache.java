@@ -0,0 +1,191 @@
+package study.datajpa.repository;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.MemberCountCacheListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 페이징 count 캐시(memberCount) - @Cacheable/@CacheEvict(cacheResolver = RESOLVER)
+ *
+ * 커밋 전에 캐시를 비우면 커밋 전까지 다른 트랜잭션이 옛날 count를 다시 캐시해서 TTL 동안 남는다.
+ *  - 비우기(clear)는 커밋 후에 한다. 롤백되면 비우지 않는다.
+ *  - 캐시 키 앞에 세대 번호를 붙이고 비울 때 세대를 올린다.
+ *    조회가 캐시에 없을 때(miss)의 세대로 값을 넣는다.
+ *    => 커밋 전에 시작한 조회가 커밋 후에 옛날 값을 넣어도 이전 세대 키라서 다시 읽히지 않는다.
+ *  - 쓰기 트랜잭션 안에서는 캐시를 읽지도 쓰지도 않는다. (자기가 바꾼 데이터를 count에 반영 + 커밋 안된 값을 캐시하지 않음)
+ */
+@Component(MemberCountCache.RESOLVER)
+public class MemberCountCache implements CacheResolver {
+
+    public static final String RESOLVER = "memberCountCacheResolver";
+
+    private final CacheManager cacheManager;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile GenerationCache cache;
+
+    public MemberCountCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        return List.of(cache());
+    }
+
+    public Cache cache() {
+        return generationCache();
+    }
+
+    private GenerationCache generationCache() {
+        GenerationCache current = cache;
+        if (current == null) {
+            Cache delegate = cacheManager.getCache(MemberCountCacheListener.CACHE_NAME);
+            if (delegate == null) {
+                throw new IllegalStateException("캐시가 설정되지 않았습니다: " + MemberCountCacheListener.CACHE_NAME);
+            }
+            current = cache = new GenerationCache(delegate);
+        }
+        return current;
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋 후에, 밖이면 바로 비운다.
+     * 한 트랜잭션에서 여러번 호출해도(saveAll 등) 커밋 후 한번만 비운다.
+     */
+    public void evictAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            //? REQUIRES_NEW 로 안쪽 트랜잭션이 시작되면 바깥 트랜잭션의 표시를 떼어뒀다가 돌아올 때 다시 붙인다.
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberCountCache.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(MemberCountCache.this, Boolean.TRUE);
+            }
+
+            @Override
+            public void afterCommit() {
+                evictNow();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberCountCache.this);
+            }
+        });
+    }
+
+    //* 이미 커밋된 변경(BulkMutationEngine 청크 등) - 바로 비운다.
+    public void evictNow() {
+        generation.incrementAndGet();
+        generationCache().delegate.clear(); //? invalidate()와 서로 호출하지 않도록 delegate를 직접 비운다.
+    }
+
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private class GenerationCache implements Cache {
+
+        private final Cache delegate;
+        //? 이 스레드에서 마지막으로 miss 난 키와 그때의 세대 - 이어지는 put은 이 세대로 넣는다. (@Cacheable: get => 메소드 실행 => put)
+        private final ThreadLocal<Miss> lastMiss = new ThreadLocal<>();
+
+        private GenerationCache(Cache delegate) {
+            this.delegate = delegate;
+        }
+
+        private static Object key(long generation, Object key) {
+            return generation + ":" + key;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            if (inWriteTransaction()) {
+                return null;
+            }
+            long current = generation.get();
+            ValueWrapper value = delegate.get(key(current, key));
+            if (value == null) {
+                lastMiss.set(new Miss(key, current));
+            }
+            return value;
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return inWriteTransaction() ? null : delegate.get(key(generation.get(), key), type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            if (inWriteTransaction()) {
+                try {
+                    return valueLoader.call();
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+            }
+            return delegate.get(key(generation.get(), key), valueLoader); //? 키(세대)를 먼저 구하고 값을 계산
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            Miss miss = lastMiss.get();
+            lastMiss.remove();
+            if (!inWriteTransaction()) {
+                long missGeneration = miss != null && miss.key().equals(key) ? miss.generation() : generation.get();
+                delegate.put(key(missGeneration, key), value);
+            }
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(key(generation.get(), key));
+        }
+
+        @Override
+        public void clear() {
+            evictAfterCommit();
+        }
+
+        @Override
+        public boolean invalidate() {
+            return delegate.invalidate();
+        }
+    }
+
+    private record Miss(Object key, long generation) {
+    }
+}
@@ -0,0 +1,101 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋(seek) 페이징에 사용하는 커서
+ * 마지막으로 내려준 회원의 (정렬 컬럼 값, member_id)를 기억해두고
+ * 다음 페이지는 offset 없이 "그 뒤부터" 조회한다.
+ *
+ * 클라이언트에는 내용을 알 수 없는 토큰(Base64)으로만 내려준다.
+ *
+ * 정렬 컬럼 값이 null일 수 있다. (username) - null은 맨 앞에 정렬(nulls first)하고
+ * 토큰에 null 여부를 따로 기록해서 다음 페이지 조건을 만든다. (문자열 "null"과 구분)
+ */
+public class MemberCursor {
+
+    public enum SortKey {
+        USERNAME("username"),
+        AGE("age");
+
+        private final String property;
+
+        SortKey(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+
+    private final SortKey sortKey;
+    private final Object value; // 마지막 회원의 정렬 컬럼 값 (null 가능)
+    private final Long id; // null이면 첫 페이지
+
+    private MemberCursor(SortKey sortKey, Object value, Long id) {
+        this.sortKey = sortKey;
+        this.value = value;
+        this.id = id;
+    }
+
+    public static MemberCursor first(SortKey sortKey) {
+        return new MemberCursor(sortKey, null, null);
+    }
+
+    public static MemberCursor after(Member member, SortKey sortKey) {
+        Object value = sortKey == SortKey.AGE ? member.getAge() : member.getUsername();
+        return new MemberCursor(sortKey, value, member.getId());
+    }
+
+    //? 토큰 형식: 정렬키:id:(n|v):값 - n이면 값이 null, username에 ':'가 들어갈 수 있어서 값을 맨 뒤에 둔다.
+    public String encode() {
+        String raw = sortKey.name() + ":" + id + ":" + (value == null ? "n:" : "v:" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException 토큰이 잘못된 경우 (Base64, 정렬키, 숫자 형식)
+     */
+    public static MemberCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = raw.split(":", 4);
+        if (parts.length != 4 || !(parts[2].equals("n") || parts[2].equals("v"))) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + token);
+        }
+
+        SortKey sortKey = SortKey.valueOf(parts[0]);
+        Object value = parts[2].equals("n") ? null
+                : sortKey == SortKey.AGE ? Integer.valueOf(parts[3]) : parts[3];
+        return new MemberCursor(sortKey, value, Long.valueOf(parts[1]));
+    }
+
+    //* 요청 파라미터(sort=username)로 정렬 기준 찾기
+    public static SortKey sortKey(String sort) {
+        for (SortKey key : SortKey.values()) {
+            if (key.getProperty().equalsIgnoreCase(sort)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("지원하지 않는 정렬 기준입니다: " + sort);
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
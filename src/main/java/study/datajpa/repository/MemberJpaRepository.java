@@ -2,15 +2,31 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository // 해당 어노테이션을 달아줘야 스프링 빈으로 등록이 된다.
+@ReadOnlyRepository // 조회는 읽기 전용 트랜잭션, 저장/삭제/벌크 수정은 메소드에 @Transactional
 public class MemberJpaRepository {
 
+    //? JPQL을 상수로 모아두고 애플리케이션 시작 시점에 미리 파싱한다. (QueryPlanWarmer)
+    private static final String FIND_ALL = "select m from Member m";
+    private static final String COUNT = "select count(m) from Member m";
+    private static final String FIND_BY_USERNAME_AND_AGE_GREATER_THAN =
+            "select m from Member m where m.username = :username and m.age > :age";
+    private static final String FIND_BY_PAGE = "select m from Member m where m.age = :age order by m.username desc";
+    private static final String TOTAL_COUNT = "select count(m) from Member m where m.age = :age";
+    private static final String BULK_AGE_PLUS = "update versioned Member m set m.age = m.age + 1 where m.age >= :age";
+
+    static final List<String> QUERIES = List.of(
+            FIND_ALL, COUNT, FIND_BY_USERNAME_AND_AGE_GREATER_THAN, FIND_BY_PAGE, TOTAL_COUNT, BULK_AGE_PLUS);
+
     // 엔티티 메니저 주입
     @PersistenceContext
     private EntityManager em;
@@ -21,18 +37,20 @@ public class MemberJpaRepository {
      * 엔티티 메니저를 통회 값을 조회해오고 트랜잭션을 커밋할 때
      * 변경된 값이 있는지 확인하고 업데이트 쿼리를 날린다.
      */
+    @Transactional
     public Member save(Member member) {
         em.persist(member);
         return member;
     }
 
+    @Transactional
     public void delete(Member member) {
         em.remove(member);
     }
 
     public List<Member> findAll() {
         // 전체 조회의 경우 JPQL을 이용해 처리 - jpql은 엔티티 객체를 대상으로 쿼리를 날림
-        return em.createQuery("select m from Member m", Member.class)
+        return em.createQuery(FIND_ALL, Member.class)
                 .getResultList();
     }
 
@@ -42,7 +60,7 @@ public class MemberJpaRepository {
     }
 
     public long count() {
-        return em.createQuery("select count(m) from Member m", Long.class)
+        return em.createQuery(COUNT, Long.class)
                 .getSingleResult();
     }
 
@@ -51,7 +69,7 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findByUsernameAndAgeGreaterThen(String username, int age) {
-        return em.createQuery("select m from Member m where m.username = :username and m.age > :age", Member.class)
+        return em.createQuery(FIND_BY_USERNAME_AND_AGE_GREATER_THAN, Member.class)
                 .setParameter("username", username)
                 .setParameter("age", age)
                 .getResultList();
@@ -66,7 +84,7 @@ public class MemberJpaRepository {
 
     //* 페이징과 정렬
     public List<Member> findByPage(int age, int offset, int limit) {
-        return em.createQuery("select m from Member m where m.age = :age order by m.username desc", Member.class)
+        return em.createQuery(FIND_BY_PAGE, Member.class)
                 .setParameter("age", age)
                 .setFirstResult(offset) // 몇번째부터
                 .setMaxResults(limit) // 몇개
@@ -74,14 +92,43 @@ public class MemberJpaRepository {
     }
 
     public long totalCount(int age) {
-        return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+        return em.createQuery(TOTAL_COUNT, Long.class)
                 .setParameter("age", age)
                 .getSingleResult();
     }
 
+    /**
+     * 페이징 total count 캐시
+     * 페이지를 넘길 때마다 같은 count 쿼리를 다시 날릴 필요가 없도록 쿼리 + 파라미터를 키로 캐시한다.
+     * Member가 저장/삭제/수정되면 MemberCountCacheListener가 비워주고
+     * 벌크 수정은 영속성 컨텍스트를 거치지 않으니 @CacheEvict로 직접 비운다. (둘 다 커밋 후에 비워짐)
+     */
+    @Cacheable(cacheResolver = MemberCountCache.RESOLVER, key = "'countByAge:' + #age")
+    public long cachedTotalCount(int age) {
+        return totalCount(age);
+    }
+
+    @Cacheable(cacheResolver = MemberCountCache.RESOLVER, key = "'count'")
+    public long cachedCount() {
+        return count();
+    }
+
+    /**
+     * 정확한 count 대신 DB 통계에 있는 예상 행 수를 사용 (H2: information_schema.tables)
+     * count(*)처럼 테이블을 읽지 않기 때문에 거의 비용이 없다. - 조건 없는 전체 건수에만 사용 가능
+     */
+    public long estimatedCount() {
+        Object estimate = em.createNativeQuery("select row_count_estimate from information_schema.tables " +
+                        "where table_schema = 'PUBLIC' and table_name = 'MEMBER'")
+                .getSingleResult();
+        return ((Number) estimate).longValue();
+    }
+
     //* 벌크성 수정 쿼리 - executeUpdate
+    @Transactional
+    @CacheEvict(cacheResolver = MemberCountCache.RESOLVER, allEntries = true)
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        return em.createQuery(BULK_AGE_PLUS)
                 .setParameter("age", age)
                 .executeUpdate();
     }
@@ -0,0 +1,40 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+/**
+ * MemberRepository의 Page 메소드를 content/count 동시 실행 버전으로 제공
+ * 반환 타입은 Slice - count가 제한 시간 안에 끝나면 실제 타입은 Page (instanceof Page로 확인)
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberPageQueries {
+
+    private final MemberRepository memberRepository;
+    private final ParallelCountPager pager;
+
+    //* MemberRepository.findByAge(int, Pageable)
+    public Slice<Member> findByAge(int age, Pageable pageable) {
+        return pager.page(pageable,
+                p -> memberRepository.findSliceByAge(age, p),
+                () -> memberRepository.countAllByAge(age));
+    }
+
+    //* MemberRepository.findCountByAge(int, Pageable)
+    public Slice<Member> findCountByAge(int age, Pageable pageable) {
+        return pager.page(pageable,
+                p -> memberRepository.findSliceCountByAge(age, p),
+                memberRepository::countForFindCountByAge);
+    }
+
+    //* MemberRepository.findByNativeProjection(String, Pageable)
+    public Slice<MemberProjection> findByNativeProjection(String username, Pageable pageable) {
+        return pager.page(pageable,
+                p -> memberRepository.findSliceByNativeProjection(username, p),
+                memberRepository::countForNativeProjection);
+    }
+}
@@ -2,19 +2,26 @@ package study.datajpa.repository;
 
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 //? 사용자 정의 레포지토리를 상속받으면 사용할 수 있음
+//? 조회 메소드는 모두 읽기 전용 트랜잭션 - 스냅샷/변경감지 없이 조회 (수정 메소드는 @Transactional로 따로 지정)
+@ReadOnlyRepository
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, JpaSpecificationExecutor<Member> {
 
     //* 유저이름이 같고 나이가 특정나이 이상인 결과를 원함 - 구현체를 만들지 않았다.
@@ -86,6 +93,27 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      */
     Slice<Member> findSliceByAge(int age, Pageable pageable);
 
+    //? findByAge의 count 쿼리만 따로 - content/count 동시 실행(MemberPageQueries)에서 사용
+    long countAllByAge(int age);
+
+    /**
+     * 비동기 조회 - @Async를 붙이고 반환타입을 CompletableFuture로 하면 별도 스레드에서 실행된다.
+     * 각각 자기 스레드의 트랜잭션(커넥션)을 사용하기 때문에 동시에 실행할 수 있다.
+     * ! 다른 스레드의 영속성 컨텍스트에서 조회했기 때문에 반환된 엔티티는 준영속 상태 (지연로딩 불가)
+     */
+    @Async
+    CompletableFuture<List<Member>> findListByAge(int age, Pageable pageable);
+
+    @Async
+    CompletableFuture<Long> countByAge(int age);
+
+    //* findByAge(int, Pageable)의 비동기 버전 - 페이지 쿼리와 count 쿼리를 동시에 실행해서 합친다.
+    default CompletableFuture<Page<Member>> findPageByAgeAsync(int age, Pageable pageable) {
+        CompletableFuture<List<Member>> content = findListByAge(age, pageable);
+        CompletableFuture<Long> total = countByAge(age);
+        return content.thenCombine(total, (members, count) -> new PageImpl<>(members, pageable, count));
+    }
+
     /**
      * 카운트 쿼리 최적화 해보기
      * 실 쿼리와 따로 작성할 수 있는 countQuery 옵션을 사용해야 한다.
@@ -98,6 +126,13 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     )
     Page<Member> findCountByAge(int age, Pageable pageable);
 
+    //? findCountByAge를 content(Slice)와 count로 나눈 것 - MemberPageQueries에서 동시에 실행
+    @Query("select m from Member m left join m.team t")
+    Slice<Member> findSliceCountByAge(int age, Pageable pageable);
+
+    @Query("select count(m.username) from Member m")
+    long countForFindCountByAge();
+
     /**
      * 벌크성 수정 쿼리
      * @Modifying을 통해 executeUpdate()를 사용한다.
@@ -107,9 +142,17 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      *
      * clearAutomatically = true: 벌크성 수정 쿼리를 실행한 후 영속성 컨텍스트를 초기화한다.
      *  => 따로 엔티티메니저를 주입받아서 쓰는 수고를 덜 수 있음
+     *
+     * @CacheEvict: 벌크 수정은 엔티티 이벤트가 발생하지 않기 때문에 count 캐시를 직접 비워준다. (커밋 후 - MemberCountCache)
+     *
+     * 대상이 많으면 update 한번에 락/undo가 크게 잡히기 때문에 BulkMutationEngine으로 청크 단위로 나눠 실행한다.
+     *
+     * update versioned: 벌크 수정도 @Version 값을 올려서 수정 전에 읽어둔 엔티티의 낙관적 락이 충돌을 감지하도록
      */
+    @Transactional
+    @CacheEvict(cacheResolver = MemberCountCache.RESOLVER, allEntries = true)
     @Modifying(clearAutomatically = true) //? 이 어노테이션을 붙여줘야 JPA가 이 쿼리는 update 쿼리라고 인식한다. - 없을경우 에러
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update versioned Member m set m.age = m.age + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
     /**
@@ -161,6 +204,8 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * Jpa가 제공하는 Lock
      * ? Lock? => 데이터베이스에서 데이터를 읽거나 쓸 때 다른 사용자가 접근하지 못하도록 하는 것
      */
+    //? 행 락을 트랜잭션 끝까지 잡기 때문에 같은 회원 수정이 줄을 선다. 충돌이 드물면 @Version + OptimisticRetryExecutor
+    @Transactional // 락은 읽기/쓰기 트랜잭션에서 잡아야 한다.
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Member findLockByUsername(String username);
 
@@ -192,4 +237,16 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
             @Param("username") String username,
             Pageable pageable
     );
+
+    //? findByNativeProjection을 content(Slice)와 count로 나눈 것 - MemberPageQueries에서 동시에 실행
+    @Query(value = "select m.member_id as id, m.username, t.name as teamName from member m " +
+            "left join team t where m.username = :username",
+            nativeQuery = true)
+    Slice<MemberProjection> findSliceByNativeProjection(
+            @Param("username") String username,
+            Pageable pageable
+    );
+
+    @Query(value = "select count(*) from member", nativeQuery = true)
+    long countForNativeProjection();
 }
@@ -1,9 +1,39 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    //* 대량 저장 - batch_size 단위로 flush + 저장한 회원만 detach (호출한 쪽 트랜잭션의 다른 엔티티는 그대로 영속 상태)
+    void saveAllInBatch(Iterable<Member> members);
+
+    //* 전체 회원을 커서로 흘려보내며 조회 - 트랜잭션 안에서 사용하고 반드시 close 해야 한다.
+    Stream<MemberDto> streamAllMemberDto();
+
+    //* 키셋 페이징 - 커서 다음부터 size 만큼 조회 (offset 없음)
+    Slice<Member> findByCursor(MemberCursor cursor, int size);
+
+    //* total count를 캐시에서 가져오는 페이징 - 페이지를 넘길 때 count 쿼리가 다시 나가지 않는다.
+    Page<Member> findPageByAge(int age, Pageable pageable);
+
+    //* 전체 회원 페이징 - datajpa.paging.estimated-total=true 이면 count(*) 대신 DB 통계의 예상 건수 사용
+    Page<Member> findAllWithCachedCount(Pageable pageable);
+
+    //* 프로젝션 조회 - 스프링 데이터 프로젝션(프록시) 대신 미리 만들어 둔 매퍼로 필요한 컬럼만 조회해서 변환
+    <T> List<T> findProjectedByUsername(String username, Class<T> type);
+
+    //* 동적 검색 - 조건 조합(shape)별로 만들어 둔 JPQL에 값만 바인딩
+    List<Member> search(MemberSearch search);
+
+    //* Query By Example - probe 메타데이터 캐시 + null 연관관계는 조인하지 않음 (ExampleQueryExecutor)
+    List<Member> findAllByExample(Example<Member> example);
 }
@@ -1,10 +1,27 @@
 package study.datajpa.repository;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.projection.ProjectionMapper;
+import study.datajpa.projection.ProjectionMapperRegistry;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 구현체 이름을 정할 때 기존에는
@@ -13,13 +30,201 @@ import java.util.List;
  *  => MemberRepositoryCustomImpl 도 사용이 가능하다는 얘기
  */
 @RequiredArgsConstructor
+@ReadOnlyRepository // 사용자 정의 조회 메소드도 읽기 전용 트랜잭션으로 실행
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     private final EntityManager em;
+    private final MemberJpaRepository memberJpaRepository;
+    private final ProjectionMapperRegistry projectionMappers;
+    private final ExampleQueryExecutor exampleQueryExecutor;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    @Value("${datajpa.stream.fetch-size:1000}")
+    private int streamFetchSize;
+
+    @Value("${datajpa.paging.estimated-total:false}")
+    private boolean estimatedTotal;
+
+    //? 회원 프로젝션 매퍼를 애플리케이션 시작 시점에 만들어 둔다. (잘못된 속성 이름은 여기서 예외)
+    @PostConstruct
+    void registerProjections() {
+        projectionMappers.register(Member.class,
+                UsernameOnly.class, UsernameOnlyDto.class, NestedClosedProjections.class, MemberProjection.class);
+    }
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    /**
+     * saveAll은 모든 엔티티를 영속성 컨텍스트에 쌓아두고 마지막에 한번에 flush 한다.
+     * => 수만건을 저장하면 영속성 컨텍스트(1차 캐시 + 스냅샷)가 끝없이 커짐
+     *
+     * batch_size 만큼 저장할 때마다 flush(JDBC batch로 전송) 후 이 메소드가 저장한 회원만 detach 해서
+     * 영속성 컨텍스트 크기를 batch_size 이하로 유지한다.
+     *  - clear를 하지 않는다. - 호출한 쪽 트랜잭션에 합류하기 때문에 clear하면 호출한 쪽의 다른 엔티티까지 준영속이 되어 이후 변경이 반영되지 않음
+     *  - 식별자가 없는 회원은 persist, 이미 있는 회원은 merge(조회 후 수정) - saveAll과 같은 기준
+     * ! 호출 이후 넘겨준 회원들은 준영속 상태가 된다. (merge한 회원은 넘겨준 객체가 원래 준영속)
+     */
+    @Override
+    @Transactional
+    public void saveAllInBatch(Iterable<Member> members) {
+        List<Member> chunk = new ArrayList<>(batchSize);
+        for (Member member : members) {
+            if (member.getId() == null) {
+                em.persist(member);
+                chunk.add(member);
+            } else {
+                chunk.add(em.merge(member));
+            }
+            if (chunk.size() == batchSize) {
+                flushAndDetach(chunk);
+            }
+        }
+        flushAndDetach(chunk);
+    }
+
+    private void flushAndDetach(List<Member> chunk) {
+        em.flush();
+        chunk.forEach(em::detach);
+        chunk.clear();
+    }
+
+    /**
+     * getResultList는 결과 전체를 List로 만들어서 반환하기 때문에 테이블이 크면 메모리가 부족해진다.
+     * getResultStream은 forward-only 커서(ScrollableResults)로 한 행씩 읽어온다.
+     * fetchSize: DB에서 한번에 가져올 행 수
+     *
+     * 엔티티가 아닌 DTO로 바로 조회하기 때문에 영속성 컨텍스트에 아무것도 쌓이지 않는다.
+     * => detach/clear 없이도 테이블 크기와 상관없이 메모리 사용량이 일정함
+     */
+    //? 스트림은 메소드가 끝난 뒤에도 커서를 읽기 때문에 호출하는 쪽에서 열어둔 트랜잭션이 반드시 있어야 한다.
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<MemberDto> streamAllMemberDto() {
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) " +
+                        "from Member m " +
+                        "left join m.team t " +
+                        "order by m.id", MemberDto.class)
+                .setHint("org.hibernate.fetchSize", streamFetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream();
+    }
+
+    /**
+     * offset 페이징은 앞의 offset 만큼을 읽고 버리기 때문에 뒤 페이지로 갈수록 느려진다.
+     * 키셋 페이징은 (정렬 컬럼, member_id) 인덱스에서 커서 위치부터 바로 읽기 시작한다.
+     * => 10,000번째 페이지도 첫 페이지와 같은 비용
+     *
+     * where 조건의 "정렬컬럼 >= :value" 는 인덱스 범위 시작점을 잡기 위한 것
+     * 같은 값 안에서는 member_id로 순서를 정해서 중복/누락 없이 이어서 조회한다.
+     * size + 1개를 조회해서 다음 페이지가 있는지 판단한다.(Slice와 같은 방식)
+     */
+    @Override
+    public Slice<Member> findByCursor(MemberCursor cursor, int size) {
+        String property = "m." + cursor.getSortKey().getProperty();
+
+        String jpql = "select m from Member m";
+        if (!cursor.isFirst() && cursor.getValue() == null) {
+            //? 마지막 회원이 null 구간 - 남은 null(id 순) 다음에 null이 아닌 값 전부
+            jpql += " where (" + property + " is null and m.id > :id) or " + property + " is not null";
+        } else if (!cursor.isFirst()) {
+            //? null은 앞에서 이미 지나왔다.
+            jpql += " where " + property + " is not null and " + property + " >= :value" +
+                    " and (" + property + " > :value or m.id > :id)";
+        }
+        //? DB마다 null 정렬 위치가 달라서 명시한다.
+        jpql += " order by " + property + " asc nulls first, m.id asc";
+
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class);
+        if (!cursor.isFirst()) {
+            query.setParameter("id", cursor.getId());
+            if (cursor.getValue() != null) {
+                query.setParameter("value", cursor.getValue());
+            }
+        }
+
+        List<Member> content = query
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        return new SliceImpl<>(content, Pageable.ofSize(size), hasNext);
+    }
+
+    /**
+     * findByAge(int, Pageable)와 같은 결과지만 count는 캐시(memberCount)를 사용한다.
+     * PageableExecutionUtils: 마지막 페이지처럼 content만으로 total을 알 수 있으면 count 자체를 생략
+     */
+    @Override
+    public Page<Member> findPageByAge(int age, Pageable pageable) {
+        List<Member> content = em.createQuery(
+                        QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m"),
+                        Member.class)
+                .setParameter("age", age)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> memberJpaRepository.cachedTotalCount(age));
+    }
+
+    @Override
+    public Page<Member> findAllWithCachedCount(Pageable pageable) {
+        List<Member> content = em.createQuery(
+                        QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m"),
+                        Member.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> estimatedTotal ? memberJpaRepository.estimatedCount() : memberJpaRepository.cachedCount());
+    }
+
+    /**
+     * findProjectionsByUsername(username, type)와 같은 결과
+     * 스프링 데이터 프로젝션은 행마다 프록시를 만들고 getter 호출마다 리플렉션/SpEL을 거친다.
+     * 오픈 프로젝션(UsernameOnly)은 엔티티를 통째로 조회해서 영속성 컨텍스트에도 올린다.
+     * => 프로젝션에 필요한 컬럼만 조회하고 미리 만들어 둔 매퍼로 바로 변환
+     */
+    @Override
+    public <T> List<T> findProjectedByUsername(String username, Class<T> type) {
+        ProjectionMapper<T> mapper = projectionMappers.mapper(Member.class, type);
+        return em.createQuery(mapper.jpql(ProjectionMapper.ROOT_ALIAS + ".username = :username"), Object[].class)
+                .setParameter("username", username)
+                .getResultList()
+                .stream()
+                .map(mapper::map)
+                .toList();
+    }
+
+    /**
+     * findAll(MemberSpec 조합)과 같은 결과
+     * Specification은 호출마다 Criteria 트리를 새로 만들어 번역하지만
+     * 여기서는 조건 조합별로 고정된 JPQL을 쓰기 때문에 Hibernate 쿼리 플랜 캐시에서 바로 찾는다.
+     */
+    @Override
+    public List<Member> search(MemberSearch search) {
+        TypedQuery<Member> query = em.createQuery(search.jpql(), Member.class);
+        if (search.getUsername() != null) {
+            query.setParameter("username", search.getUsername());
+        }
+        if (search.getTeamName() != null) {
+            query.setParameter("teamName", search.getTeamName());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Member> findAllByExample(Example<Member> example) {
+        return exampleQueryExecutor.findAll(example);
+    }
 }
@@ -0,0 +1,96 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+import study.datajpa.entity.Member;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 회원 검색 조건
+ * 비어있는 조건은 빼고 "어떤 조건이 있는지(shape)"만으로 쿼리 모양을 정한다.
+ * => 같은 shape이면 JPQL 문자열이 항상 같기 때문에 쿼리 플랜/PreparedStatement를 그대로 재사용하고 값만 바인딩
+ *
+ * MemberSpec 조합(Specification)은 호출마다 Criteria 트리를 새로 만들고
+ * null을 반환하는 조건이 섞이면 쿼리 모양도 호출마다 달라진다.
+ */
+public class MemberSearch {
+
+    public enum Criterion {
+        USERNAME("m.username = :username", false),
+        TEAM_NAME("t.name = :teamName", true);
+
+        private final String predicate;
+        private final boolean teamJoin;
+
+        Criterion(String predicate, boolean teamJoin) {
+            this.predicate = predicate;
+            this.teamJoin = teamJoin;
+        }
+    }
+
+    //? shape(조건 조합)마다 JPQL을 한번만 만든다. - 조건 n개면 2^n개, 비트마스크로 바로 찾음
+    private static final String[] JPQL_BY_SHAPE = new String[1 << Criterion.values().length];
+
+    static {
+        for (int shape = 0; shape < JPQL_BY_SHAPE.length; shape++) {
+            JPQL_BY_SHAPE[shape] = jpql(shape);
+        }
+    }
+
+    private final String username;
+    private final String teamName;
+
+    public MemberSearch(String username, String teamName) {
+        this.username = StringUtils.hasLength(username) ? username : null;
+        this.teamName = StringUtils.hasLength(teamName) ? teamName : null;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+
+    public Set<Criterion> shape() {
+        EnumSet<Criterion> shape = EnumSet.noneOf(Criterion.class);
+        if (username != null) {
+            shape.add(Criterion.USERNAME);
+        }
+        if (teamName != null) {
+            shape.add(Criterion.TEAM_NAME);
+        }
+        return shape;
+    }
+
+    String jpql() {
+        int mask = 0;
+        for (Criterion criterion : shape()) {
+            mask |= 1 << criterion.ordinal();
+        }
+        return JPQL_BY_SHAPE[mask];
+    }
+
+    //* 기존 Specification API가 필요한 곳에서 사용 - MemberSpec 조합과 같은 결과
+    public Specification<Member> toSpecification() {
+        return Specification.where(MemberSpec.username(username)).and(MemberSpec.teamName(teamName));
+    }
+
+    private static String jpql(int shape) {
+        StringBuilder join = new StringBuilder();
+        StringBuilder where = new StringBuilder();
+        for (Criterion criterion : Criterion.values()) {
+            if ((shape & (1 << criterion.ordinal())) == 0) {
+                continue;
+            }
+            if (criterion.teamJoin && join.isEmpty()) {
+                join.append(" join m.team t"); // MemberSpec.teamName과 같은 inner join
+            }
+            where.append(where.isEmpty() ? " where " : " and ").append(criterion.predicate);
+        }
+        return "select m from Member m" + join + where;
+    }
+}
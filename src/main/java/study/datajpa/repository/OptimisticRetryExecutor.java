@@ -0,0 +1,112 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @Version 충돌(낙관적 락 실패)이 나면 트랜잭션 단위 작업을 처음부터 다시 실행한다.
+ *
+ * 비관적 락(findLockByUsername)은 조회 시점부터 커밋까지 행 락을 잡기 때문에 같은 행을 수정하는 요청이 줄을 서지만
+ * 낙관적 락은 락 없이 읽고 커밋할 때 version으로 충돌만 확인한다. => 충돌이 드물면 대기 없이 처리된다.
+ *
+ * ! 작업은 매번 새 트랜잭션(REQUIRES_NEW)에서 실행된다. 충돌한 영속성 컨텍스트는 버리고 다시 조회해야 하기 때문
+ * ! 재시도되므로 콜백 안에서 외부 호출(메일 발송 등) 같은 되돌릴 수 없는 작업을 하면 안된다.
+ *
+ * 재시도 간격은 지수 백오프 + 지터 - 충돌한 요청들이 같은 시점에 다시 부딪히지 않도록 흩어준다.
+ */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Counter retries;
+    private final Counter failures;
+
+    public OptimisticRetryExecutor(
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${datajpa.optimistic-retry.max-attempts:5}") int maxAttempts,
+            @Value("${datajpa.optimistic-retry.backoff:10ms}") Duration backoff,
+            @Value("${datajpa.optimistic-retry.max-backoff:200ms}") Duration maxBackoff
+    ) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.retries = Counter.builder("repository.optimistic.retry")
+                .description("낙관적 락 충돌로 다시 실행한 횟수")
+                .register(registry);
+        this.failures = Counter.builder("repository.optimistic.failure")
+                .description("재시도 횟수를 모두 써서 실패한 횟수")
+                .register(registry);
+    }
+
+    public <T> T execute(TransactionCallback<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (RuntimeException e) {
+                if (!isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    failures.increment();
+                    throw e;
+                }
+                retries.increment();
+                log.debug("낙관적 락 충돌 - 재시도 {}/{}", attempt + 1, maxAttempts);
+                sleep(attempt);
+            }
+        }
+    }
+
+    public void executeWithoutResult(Runnable action) {
+        execute(status -> {
+            action.run();
+            return null;
+        });
+    }
+
+    //? 커밋 시점에 나면 스프링 예외(ObjectOptimisticLockingFailureException)로, flush 중에 나면 JPA 예외로 감싸져서 올라온다.
+    static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    //* backoff * 2^(attempt-1) 을 넘지 않는 범위에서 랜덤 (full jitter)
+    private void sleep(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), backoff.toMillis() << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트", e);
+        }
+    }
+}
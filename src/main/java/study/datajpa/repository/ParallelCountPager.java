@@ -0,0 +1,94 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Page 조회의 content 쿼리와 count 쿼리를 동시에 실행한다.
+ * 스프링 데이터의 Page 메소드는 content 조회 -> count 조회를 순서대로 실행하기 때문에
+ * 큰 테이블에서는 두 쿼리 시간이 그대로 더해진다.
+ *
+ * count는 다른 스레드(다른 커넥션)의 읽기 전용 트랜잭션에서 실행하고
+ * 제한 시간(datajpa.paging.parallel-count-timeout) 안에 끝나지 않으면 total 없이 Slice를 반환한다.
+ * ! count는 별도 트랜잭션이라 호출한 쪽 트랜잭션에서 아직 커밋하지 않은 데이터는 세지 않는다.
+ */
+@Component
+public class ParallelCountPager {
+
+    private final AsyncTaskExecutor taskExecutor;
+    private final TransactionTemplate countTransaction;
+    private final Duration timeout;
+
+    public ParallelCountPager(
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${datajpa.paging.parallel-count-timeout:200ms}") Duration timeout
+    ) {
+        this.taskExecutor = taskExecutor;
+        this.timeout = timeout;
+        this.countTransaction = new TransactionTemplate(transactionManager);
+        this.countTransaction.setReadOnly(true);
+        this.countTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        //? 제한 시간이 지나면 결과를 버리기 때문에 늦게 끝나는 count가 커넥션을 오래 붙잡지 않도록 쿼리 타임아웃도 건다.
+        this.countTransaction.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+    }
+
+    /**
+     * @param content Slice 조회(size + 1 조회로 다음 페이지 여부만 확인)
+     * @param count   전체 건수 조회
+     * @return 제한 시간 안에 count가 끝나면 Page, 아니면 Slice
+     */
+    public <T> Slice<T> page(Pageable pageable, Function<Pageable, Slice<T>> content, LongSupplier count) {
+        if (pageable.isUnpaged()) {
+            return content.apply(pageable);
+        }
+
+        Future<Long> total = taskExecutor.submit(() -> countTransaction.execute(status -> count.getAsLong()));
+
+        Slice<T> slice = content.apply(pageable);
+
+        //? 마지막 페이지면 count 없이도 total을 알 수 있다. (PageableExecutionUtils와 같은 규칙)
+        if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            total.cancel(false);
+            return new PageImpl<>(slice.getContent(), pageable, pageable.getOffset() + slice.getNumberOfElements());
+        }
+
+        try {
+            return toPage(slice, pageable, total.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            //? 결과를 기다리지 않으니 count 스레드를 인터럽트해서 커넥션 대기 등을 멈추게 한다. (실행 중인 쿼리는 트랜잭션 타임아웃)
+            total.cancel(true);
+            return slice;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return slice;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static <T> Page<T> toPage(Slice<T> slice, Pageable pageable, long total) {
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+}
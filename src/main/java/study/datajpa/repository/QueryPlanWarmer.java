@@ -0,0 +1,40 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * 쿼리 플랜 미리 만들기
+ * 모든 빈이 만들어진 뒤(웹 서버가 요청을 받기 전에) JPQL을 한번씩 파싱해서 Hibernate 쿼리 플랜 캐시에 올려둔다.
+ * => 첫 요청이 JPQL 파싱 비용을 내지 않음
+ *
+ * 대상: MemberJpaRepository의 JPQL (순수 JPA 레포지토리라서 스프링 데이터가 알지 못함)
+ * ! 레포지토리의 @Query는 스프링 데이터가 시작할 때 em.createQuery로 검증하면서, @NamedQuery는 하이버네이트가 시작할 때 이미 파싱한다.
+ * ! 메소드 이름 쿼리와 Specification은 Criteria라서 첫 실행 때 criteria 플랜 캐시에 올라간다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryPlanWarmer implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            for (String jpql : MemberJpaRepository.QUERIES) {
+                em.createQuery(jpql);
+            }
+        } finally {
+            em.close();
+        }
+        log.info("query plans warmed up - {} JPQL in {} ms",
+                MemberJpaRepository.QUERIES.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.*;
+
+/**
+ * 레포지토리의 조회 메소드를 모두 읽기 전용 트랜잭션으로 실행한다.
+ *
+ * 읽기 전용 트랜잭션이 시작되면 스프링(HibernateJpaDialect)이 세션을
+ * FlushMode.MANUAL + defaultReadOnly 로 바꿔준다.
+ * => 그 트랜잭션에서 조회한 엔티티(지연로딩, Specification 조회 포함)는 스냅샷을 만들지 않고 flush 시 변경감지도 하지 않는다.
+ * => 메소드마다 @QueryHint(org.hibernate.readOnly)를 붙이지 않아도 된다.
+ *
+ * 서비스에서 @Transactional(readOnly = true)로 먼저 트랜잭션을 열면 그 안의 모든 조회에 똑같이 전파된다.
+ * ! 이미 열린 읽기/쓰기 트랜잭션에 참여하는 경우에는 적용되지 않음 (바깥 트랜잭션 설정을 따름)
+ * ! 수정/락 메소드는 메소드에 @Transactional을 따로 붙여서 읽기/쓰기로 실행해야 한다.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyRepository {
+}
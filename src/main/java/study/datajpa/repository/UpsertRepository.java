@@ -0,0 +1,15 @@
+package study.datajpa.repository;
+
+/**
+ * 식별자를 직접 지정하는 엔티티(Item 처럼 @GeneratedValue가 없는 엔티티)의 대량 저장/수정
+ *
+ * save()는 isNew()가 false면 em.merge()를 호출하고, merge는 행마다 select를 먼저 실행한다.
+ * upsertAll은 select 없이 MERGE 문을 JDBC 배치로 보낸다. (행이 있으면 update, 없으면 insert)
+ *
+ * 사용법: 레포지토리 인터페이스에 UpsertRepository<엔티티>를 추가로 상속 (ItemRepository 참고)
+ */
+public interface UpsertRepository<T> {
+
+    //* @return 반영된 행 수
+    int upsertAll(Iterable<? extends T> entities);
+}
@@ -0,0 +1,197 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 엔티티 매핑 정보(하이버네이트 EntityPersister)로 MERGE 문을 만들어서 엔티티 타입별로 캐시해둔다.
+ *
+ *  merge into item t using dual on t.id = ?
+ *  when matched then update set (수정 가능한 컬럼) = ?
+ *  when not matched then insert (id, 저장 가능한 컬럼) values (?, ...)
+ *
+ * @Column(updatable = false) 컬럼(등록일 등)은 이미 있는 행이면 그대로 둔다.
+ * 파라미터가 대상 컬럼과 바로 비교/대입되기 때문에 DB가 타입을 추론할 수 있다. (VALUES 파생 테이블은 타입 지정이 필요)
+ *
+ * ! 영속성 컨텍스트를 거치지 않는다. 먼저 flush 하고, 이미 조회해 둔 같은 엔티티는 DB와 달라질 수 있다.
+ * ! 단일 테이블 엔티티만 지원 - @Version(직접 버전을 올려야 함), 상속, 다중 컬럼 속성은 예외
+ */
+@RequiredArgsConstructor
+public class UpsertRepositoryImpl<T> implements UpsertRepository<T> {
+
+    private final EntityManager em;
+    private final ObjectProvider<AuditingHandler> auditingHandler;
+    private final Map<Class<?>, UpsertStatement> statements = new ConcurrentHashMap<>();
+
+    @Value("${datajpa.upsert.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public int upsertAll(Iterable<? extends T> entities) {
+        List<? extends T> list = entities instanceof List<? extends T> l ? l : toList(entities);
+        if (list.isEmpty()) {
+            return 0;
+        }
+
+        Class<?> type = Hibernate.getClass(list.get(0));
+        UpsertStatement statement = statements.computeIfAbsent(type, this::createStatement);
+        markAudited(type, list);
+        em.flush(); //? 아직 반영되지 않은 변경이 MERGE보다 늦게 나가지 않도록
+
+        int[] rows = new int[1];
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(statement.sql())) {
+                int pending = 0;
+                for (T entity : list) {
+                    statement.bind(ps, entity);
+                    ps.addBatch();
+                    if (++pending == batchSize) {
+                        rows[0] += executeBatch(ps);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    rows[0] += executeBatch(ps);
+                }
+            }
+        });
+
+        //? 2차 캐시에 옛날 값이 남지 않도록 (캐시하지 않는 엔티티면 아무 일도 하지 않음)
+        PersistenceUnitUtil util = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        for (T entity : list) {
+            em.getEntityManagerFactory().getCache().evict(type, util.getIdentifier(entity));
+        }
+        return rows[0];
+    }
+
+    private static int executeBatch(PreparedStatement ps) throws SQLException {
+        int rows = 0;
+        for (int count : ps.executeBatch()) {
+            rows += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return rows;
+    }
+
+    //? AuditingEntityListener는 JPA 이벤트라서 호출되지 않는다. => 등록일/수정일을 직접 채운다.
+    private void markAudited(Class<?> type, List<? extends T> list) {
+        AuditingHandler handler = auditingHandler.getIfAvailable();
+        if (handler == null) {
+            return;
+        }
+        JpaEntityInformation<?, ?> information = JpaEntityInformationSupport.getEntityInformation(type, em);
+        for (T entity : list) {
+            if (information.isNew(entity)) {
+                handler.markCreated(entity);
+            } else {
+                handler.markModified(entity);
+            }
+        }
+    }
+
+    private UpsertStatement createStatement(Class<?> type) {
+        SessionFactoryImplementor sessionFactory = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        EntityPersister descriptor = sessionFactory.getMappingMetamodel().getEntityDescriptor(type);
+        if (!(descriptor instanceof AbstractEntityPersister persister)
+                || persister.isVersioned() || persister.isInherited() || persister.getEntityMetamodel().hasSubclasses()
+                || persister.getIdentifierColumnNames().length != 1) {
+            throw new IllegalArgumentException("upsert를 지원하지 않는 엔티티입니다: " + type.getName());
+        }
+
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        boolean[] insertable = persister.getPropertyInsertability();
+        boolean[] updatable = persister.getPropertyUpdateability();
+
+        List<Column> insertColumns = new ArrayList<>();
+        List<Column> updateColumns = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            if (types[i].isCollectionType() || (!insertable[i] && !updatable[i])) {
+                continue;
+            }
+            String[] columnNames = persister.getPropertyColumnNames(i);
+            if (columnNames.length != 1) {
+                throw new IllegalArgumentException("upsert는 단일 컬럼 속성만 지원합니다: " + type.getName() + "." + names[i]);
+            }
+            Column column = new Column(columnNames[0], i, types[i].isEntityType());
+            if (insertable[i]) {
+                insertColumns.add(column);
+            }
+            if (updatable[i]) {
+                updateColumns.add(column);
+            }
+        }
+
+        String idColumn = persister.getIdentifierColumnNames()[0];
+        StringBuilder sql = new StringBuilder("merge into ").append(persister.getTableName())
+                .append(" t using dual on t.").append(idColumn).append(" = ?");
+        if (!updateColumns.isEmpty()) {
+            sql.append(" when matched then update set ")
+                    .append(updateColumns.stream().map(c -> c.name() + " = ?").collect(Collectors.joining(", ")));
+        }
+        sql.append(" when not matched then insert (").append(idColumn);
+        insertColumns.forEach(c -> sql.append(", ").append(c.name()));
+        sql.append(") values (?").append(", ?".repeat(insertColumns.size())).append(")");
+
+        return new UpsertStatement(sql.toString(), persister, em.getEntityManagerFactory().getPersistenceUnitUtil(),
+                updateColumns, insertColumns);
+    }
+
+    private static <T> List<T> toList(Iterable<? extends T> entities) {
+        List<T> list = new ArrayList<>();
+        entities.forEach(list::add);
+        return list;
+    }
+
+    private record Column(String name, int propertyIndex, boolean association) {
+    }
+
+    private record UpsertStatement(String sql, EntityPersister persister, PersistenceUnitUtil util,
+                                   List<Column> updateColumns, List<Column> insertColumns) {
+
+        void bind(PreparedStatement ps, Object entity) throws SQLException {
+            Object id = util.getIdentifier(entity);
+            if (id == null) {
+                throw new IllegalArgumentException("upsert는 식별자를 직접 지정한 엔티티만 지원합니다: " + entity);
+            }
+            Object[] values = persister.getValues(entity);
+            int index = 1;
+            ps.setObject(index++, id);
+            for (Column column : updateColumns) {
+                ps.setObject(index++, value(column, values));
+            }
+            ps.setObject(index++, id);
+            for (Column column : insertColumns) {
+                ps.setObject(index++, value(column, values));
+            }
+        }
+
+        //? 연관관계(@ManyToOne)는 외래키 값(연관 엔티티의 식별자)을 넣는다.
+        private Object value(Column column, Object[] values) {
+            Object value = values[column.propertyIndex()];
+            return column.association() && value != null ? util.getIdentifier(value) : value;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.shard;
+
+/**
+ * 현재 스레드가 사용할 샤드 번호
+ * ShardRoutingDataSource가 커넥션을 꺼낼 때 이 값을 보고 샤드를 고른다.
+ * ! 트랜잭션이 시작될 때 커넥션을 잡기 때문에 트랜잭션 시작 전에 지정해야 한다. (ShardTemplate 사용)
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    //* 지정하지 않으면 null => ShardRoutingDataSource의 기본 샤드(0번)
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static void set(int shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,42 @@
+package study.datajpa.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 샤드 DataSource 라우팅
+ * 커넥션을 꺼낼 때마다 ShardContext의 샤드 번호로 실제 DataSource를 고른다.
+ * EntityManagerFactory는 하나라서 스프링 데이터 레포지토리를 그대로 사용할 수 있다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false); // 없는 샤드 번호면 기본 샤드로 가지 않고 예외
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+}
@@ -0,0 +1,50 @@
+package study.datajpa.shard;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.tool.schema.spi.SchemaManager;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * ddl-auto는 기본 샤드 하나에만 적용되기 때문에 샤드마다 직접 스키마를 만든다.
+ * 만든 뒤 시퀀스를 샤드별 식별자 구간의 시작값으로 옮겨서 샤드 간 식별자가 겹치지 않게 한다.
+ */
+@Slf4j
+@Component
+@Profile("sharding")
+@RequiredArgsConstructor
+public class ShardSchemaInitializer implements InitializingBean {
+
+    private static final String[] SEQUENCES = {"member_seq", "team_seq"};
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardRoutingDataSource dataSource;
+    private final ShardingProperties properties;
+
+    @Override
+    public void afterPropertiesSet() {
+        SchemaManager schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+
+        for (int shard = 0; shard < dataSource.getShardCount(); shard++) {
+            ShardContext.set(shard);
+            try {
+                schemaManager.dropMappedObjects(true);
+                schemaManager.exportMappedObjects(true);
+            } finally {
+                ShardContext.clear();
+            }
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource.getShards().get(shard));
+            long start = shard * properties.getIdRange() + 1;
+            for (String sequence : SEQUENCES) {
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + start);
+            }
+            log.info("shard {} schema created - ids start with {}", shard, start);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package study.datajpa.shard;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * 샤드를 지정해서 트랜잭션을 실행
+ * 샤드를 먼저 정하고 새 트랜잭션을 시작해야 그 샤드의 커넥션을 잡는다.
+ * ! 새 트랜잭션(REQUIRES_NEW)이라 반환된 엔티티는 준영속 상태
+ */
+@Component
+@Profile("sharding")
+public class ShardTemplate {
+
+    private final ShardRoutingDataSource dataSource;
+    private final ShardingProperties properties;
+    private final AsyncTaskExecutor taskExecutor;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+
+    public ShardTemplate(
+            ShardRoutingDataSource dataSource,
+            ShardingProperties properties,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor
+    ) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.taskExecutor = taskExecutor;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public int shardCount() {
+        return dataSource.getShardCount();
+    }
+
+    //* 팀의 식별자 구간으로 샤드를 찾는다. (팀이 없는 회원은 0번 샤드)
+    public int shardOfTeam(Long teamId) {
+        if (teamId == null) {
+            return 0;
+        }
+        int shard = (int) (teamId / properties.getIdRange());
+        if (shard >= shardCount()) {
+            throw new IllegalArgumentException("team_id " + teamId + "에 해당하는 샤드가 없습니다.");
+        }
+        return shard;
+    }
+
+    public <T> T write(int shard, Supplier<T> action) {
+        return execute(shard, writeTransaction, action);
+    }
+
+    public <T> T read(int shard, Supplier<T> action) {
+        return execute(shard, readTransaction, action);
+    }
+
+    /**
+     * scatter-gather: 모든 샤드에서 동시에 조회하고 샤드 번호 순서대로 결과를 모은다.
+     */
+    public <T> List<T> readAll(IntFunction<T> action) {
+        List<CompletableFuture<T>> futures = IntStream.range(0, shardCount())
+                .mapToObj(shard -> CompletableFuture.supplyAsync(() -> read(shard, () -> action.apply(shard)), taskExecutor))
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private <T> T execute(int shard, TransactionTemplate transaction, Supplier<T> action) {
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return transaction.execute(status -> action.get());
+        } finally {
+            if (previous == null) {
+                ShardContext.clear();
+            } else {
+                ShardContext.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package study.datajpa.shard;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * team_id 기준으로 샤딩된 Member/Team 저장소
+ * 한 팀과 그 팀의 회원은 같은 샤드에 저장된다.
+ *  - 저장: 새 팀은 샤드를 돌아가며 배정, 회원은 소속 팀의 샤드에 저장
+ *  - 여러 샤드에 걸친 조회: 모든 샤드에 동시에 조회(scatter)하고 결과를 합친다(gather)
+ * ! 반환되는 엔티티는 준영속 상태 - 지연로딩이 필요하면 DTO 조회를 사용
+ */
+@Repository
+@Profile("sharding")
+public class ShardedMemberRepository {
+
+    private final ShardTemplate shardTemplate;
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final AtomicInteger nextTeamShard = new AtomicInteger();
+
+    public ShardedMemberRepository(ShardTemplate shardTemplate, MemberRepository memberRepository, TeamRepository teamRepository) {
+        this.shardTemplate = shardTemplate;
+        this.memberRepository = memberRepository;
+        this.teamRepository = teamRepository;
+    }
+
+    public Team saveTeam(Team team) {
+        int shard = team.getId() != null
+                ? shardTemplate.shardOfTeam(team.getId())
+                : Math.floorMod(nextTeamShard.getAndIncrement(), shardTemplate.shardCount());
+        return shardTemplate.write(shard, () -> teamRepository.save(team));
+    }
+
+    public Member saveMember(Member member) {
+        Long teamId = member.getTeam() == null ? null : member.getTeam().getId();
+        return shardTemplate.write(shardTemplate.shardOfTeam(teamId), () -> memberRepository.save(member));
+    }
+
+    //* 팀이 정해져 있으면 그 샤드 하나만 조회
+    public List<Member> findByTeam(Long teamId) {
+        return shardTemplate.read(shardTemplate.shardOfTeam(teamId),
+                () -> memberRepository.findAll((root, query, cb) -> cb.equal(root.get("team").get("id"), teamId)));
+    }
+
+    /**
+     * 전체 회원 페이징
+     * 각 샤드에서 (offset + size)건을 같은 정렬로 가져온 뒤 병합 정렬해서 offset부터 size건을 자른다.
+     * total은 샤드별 total의 합
+     * ! 뒤쪽 페이지일수록 샤드마다 가져오는 건수가 늘어난다 - 깊은 페이지는 키셋 페이징(findByCursor)을 권장
+     */
+    public Page<Member> findAll(Pageable pageable) {
+        Sort sort = pageable.getSort().and(Sort.by("id")); // 샤드 간에도 순서가 항상 같도록 id를 마지막 정렬 기준으로
+        PageRequest shardRequest = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), sort);
+
+        List<Page<Member>> pages = shardTemplate.readAll(shard -> memberRepository.findAll(shardRequest));
+
+        List<Member> content = pages.stream()
+                .flatMap(page -> page.getContent().stream())
+                .sorted(comparator(sort))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    public List<Member> findByNames(Collection<String> names) {
+        return shardTemplate.readAll(shard -> memberRepository.findByNames(names)).stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    public List<MemberDto> findMemberDto() {
+        return shardTemplate.readAll(shard -> memberRepository.findMemberDto()).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(MemberDto::getId))
+                .toList();
+    }
+
+    /**
+     * Sort를 메모리 정렬용 Comparator로 변환 (null은 DB와 같이 뒤로)
+     * ! 연관 엔티티 속성(team.name 등) 정렬은 준영속 프록시를 건드리기 때문에 지원하지 않는다.
+     */
+    private static Comparator<Member> comparator(Sort sort) {
+        Comparator<Member> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            comparator = comparator.thenComparing((a, b) -> compare(
+                    new BeanWrapperImpl(a).getPropertyValue(order.getProperty()),
+                    new BeanWrapperImpl(b).getPropertyValue(order.getProperty()),
+                    order.isAscending()));
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object a, Object b, boolean ascending) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null) {
+            return 1;
+        }
+        if (b == null) {
+            return -1;
+        }
+        int result = ((Comparable<Object>) a).compareTo(b);
+        return ascending ? result : -result;
+    }
+}
@@ -0,0 +1,35 @@
+package study.datajpa.shard;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * sharding 프로필: spring.datasource 하나 대신 datajpa.sharding.shards의 DB들을 라우팅해서 사용
+ * DataSource 빈을 직접 등록하면 스프링 부트의 DataSource 자동 설정은 빠진다.
+ */
+@Configuration
+@Profile("sharding")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource dataSource(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("datajpa.sharding.shards 설정이 없습니다.");
+        }
+        List<DataSource> shards = properties.getShards().stream()
+                .map(shard -> (DataSource) DataSourceBuilder.create()
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .build())
+                .toList();
+        return new ShardRoutingDataSource(shards);
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.sharding")
+public class ShardingProperties {
+
+    /**
+     * 샤드마다 식별자 구간을 나눠 쓴다. (샤드 n => n * idRange + 1 부터)
+     * => team_id만 보고 어느 샤드의 팀인지 알 수 있음 (team_id / idRange)
+     */
+    private long idRange = 1_000_000_000_000L;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter @Setter
+    public static class Shard {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+    }
+}
@@ -0,0 +1,53 @@
+-- 엔티티 매핑(ddl-auto: create)과 같은 스키마 - fast-start 프로필은 이 스크립트로 만들고 하이버네이트는 검증(validate)만 한다.
+-- 엔티티를 바꾸면 이 파일을 고치지 말고 V2__... 스크립트를 추가한다.
+
+-- PooledSequenceGenerator: increment by 는 datajpa.id.allocation_size(50)와 같아야 한다. (다르면 시작할 때 예외)
+create sequence member_seq start with 1 increment by 50;
+create sequence team_seq start with 1 increment by 50;
+
+create table team (
+    team_id            bigint not null,
+    name               varchar(255),
+    created_by         varchar(255),
+    last_modified_by   varchar(255),
+    created_date       timestamp(6),
+    last_modified_date timestamp(6),
+    version            bigint,
+    primary key (team_id)
+);
+
+create table member (
+    member_id          bigint not null,
+    username           varchar(255),
+    age                integer not null,
+    team_id            bigint,
+    created_by         varchar(255),
+    last_modified_by   varchar(255),
+    created_date       timestamp(6),
+    last_modified_date timestamp(6),
+    version            bigint,
+    primary key (member_id),
+    constraint fk_member_team foreign key (team_id) references team
+);
+
+-- 키셋 페이징용 인덱스 (Member @Table(indexes))
+create index idx_member_username_id on member (username, member_id);
+create index idx_member_age_id on member (age, member_id);
+
+create table item (
+    id           varchar(255) not null,
+    created_date timestamp(6),
+    primary key (id)
+);
+
+create table bulk_job (
+    bulk_job_id        varchar(255) not null,
+    statement          varchar(2000),
+    last_id            bigint,
+    processed_rows     bigint not null,
+    chunks             integer not null,
+    status             enum ('RUNNING', 'COMPLETED'),
+    created_date       timestamp(6),
+    last_modified_date timestamp(6),
+    primary key (bulk_job_id)
+);
@@ -0,0 +1,2 @@
+-- BulkJob.paramsHash - 같은 jobId를 다른 바인딩 파라미터로 다시 실행하는 것을 막는다. (기존 작업은 null => 파라미터를 확인하지 않음)
+alter table bulk_job add column params_hash varchar(64);
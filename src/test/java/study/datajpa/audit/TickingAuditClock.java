@@ -0,0 +1,64 @@
+package study.datajpa.audit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * 테스트용 AuditClock 시각 - 시각을 구할 때마다 tick 만큼 흐른다.
+ * close()하면 원래 Clock으로 돌아간다.
+ */
+public class TickingAuditClock extends Clock implements AutoCloseable {
+
+    private final Clock previous;
+    private final Duration tick;
+    private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+    private TickingAuditClock(Duration tick) {
+        this.tick = tick;
+        this.previous = AuditClock.useClock(this);
+    }
+
+    public static TickingAuditClock install(Duration tick) {
+        return new TickingAuditClock(tick);
+    }
+
+    @Override
+    public synchronized Instant instant() {
+        now = now.plus(tick);
+        return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneId.systemDefault();
+    }
+
+    //? 같은 시각을 다른 시간대로 보는 Clock - 시각은 이 Clock과 같이 흐른다.
+    @Override
+    public Clock withZone(ZoneId zone) {
+        TickingAuditClock source = this;
+        return new Clock() {
+            @Override
+            public Instant instant() {
+                return source.instant();
+            }
+
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+
+            @Override
+            public Clock withZone(ZoneId newZone) {
+                return source.withZone(newZone);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        AuditClock.useClock(previous);
+    }
+}
@@ -0,0 +1,94 @@
+package study.datajpa.bulk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.BulkJob;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//? 청크마다 커밋하는 것을 확인해야 하기 때문에 @Transactional 없이 테스트하고 직접 정리한다.
+@SpringBootTest
+class BulkMutationEngineTest {
+
+    @Autowired
+    BulkMutationEngine bulkMutationEngine;
+    @Autowired
+    BulkJobRepository bulkJobRepository;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(members);
+        bulkJobRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void chunkedUpdate() {
+        // given
+        for (int i = 0; i < 10; i++) {
+            members.add(memberRepository.save(new Member("bulk" + i, 5000 + i)));
+        }
+
+        //? 페이징 count(findPageByAge가 사용)를 캐시에 올려둔다.
+        long countBefore = memberJpaRepository.cachedTotalCount(5005);
+
+        // when
+        BulkJob job = bulkMutationEngine.execute("agePlus",
+                BulkMutation.of("update Member m set m.age = m.age + 1 where m.age >= :age")
+                        .param("age", 5005)
+                        .chunkSize(2));
+
+        // then
+        //? 5005 ~ 5009 다섯명 => 2, 2, 1 세 청크
+        assertThat(job.isCompleted()).isTrue();
+        assertThat(job.getProcessedRows()).isEqualTo(5);
+        assertThat(job.getChunks()).isEqualTo(3);
+        assertThat(memberRepository.findListByUsername("bulk4").get(0).getAge()).isEqualTo(5004);
+        assertThat(memberRepository.findListByUsername("bulk9").get(0).getAge()).isEqualTo(5010);
+        //? 청크가 커밋될 때 count 캐시가 비워져서 수정 후 건수가 나온다. (5005였던 회원은 5006이 됨)
+        assertThat(countBefore).isEqualTo(1);
+        assertThat(memberJpaRepository.cachedTotalCount(5005)).isEqualTo(0);
+
+        //? 완료된 작업을 같은 jobId로 다시 실행하면 아무것도 수정하지 않는다.
+        BulkJob again = bulkMutationEngine.execute("agePlus",
+                BulkMutation.of("update Member m set m.age = m.age + 1 where m.age >= :age").param("age", 5005));
+        assertThat(again.getProcessedRows()).isEqualTo(5);
+        assertThat(memberRepository.findListByUsername("bulk9").get(0).getAge()).isEqualTo(5010);
+    }
+
+    @Test
+    public void rejectResumeWithDifferentParams() {
+        // given
+        members.add(memberRepository.save(new Member("bulkParams", 6000)));
+        bulkMutationEngine.execute("agePlusParams",
+                BulkMutation.of("update Member m set m.age = m.age + 1 where m.age >= :age").param("age", 6000));
+
+        // when & then
+        //? 같은 jobId + 같은 쿼리라도 파라미터가 다르면 이전 체크포인트로 이어서 실행하지 않는다.
+        assertThatThrownBy(() -> bulkMutationEngine.execute("agePlusParams",
+                BulkMutation.of("update Member m set m.age = m.age + 1 where m.age >= :age").param("age", 1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("파라미터");
+        assertThat(memberRepository.findListByUsername("bulkParams").get(0).getAge()).isEqualTo(6001);
+    }
+
+    @Test
+    public void rejectStatementWithoutAlias() {
+        assertThatThrownBy(() -> BulkMutation.of("update Member set age = 1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,69 @@
+package study.datajpa.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 동시 접속 1,000명 부하 테스트 - 오래 걸리기 때문에 -DloadTest=true 일 때만 실행
+ * ./gradlew test --tests '*MemberControllerLoadTest' -DloadTest=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class MemberControllerLoadTest {
+
+    private static final int CLIENTS = 1_000;
+    private static final Duration DURATION = Duration.ofSeconds(10);
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    public void asyncPagingThroughput() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members/async?age=10"))
+                .build();
+
+        AtomicLong success = new AtomicLong();
+        AtomicLong failure = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        long end = System.nanoTime() + DURATION.toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.execute(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        (response.statusCode() == 200 ? success : failure).incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failure.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+
+        System.out.println("clients = " + CLIENTS);
+        System.out.println("requests/sec = " + success.get() / DURATION.toSeconds());
+        System.out.println("failures = " + failure.get());
+
+        assertThat(success.get()).isPositive();
+    }
+}
@@ -6,10 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.audit.TickingAuditClock;
 import study.datajpa.repository.MemberJpaRepository;
 import study.datajpa.repository.MemberRepository;
 
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +30,8 @@ class MemberTest {
     private MemberJpaRepository memberJpaRepository;
     @Autowired
     private MemberRepository memberRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Test
     public void testEntity() {
@@ -80,4 +87,56 @@ class MemberTest {
         System.out.println("findMember.getCreatedBy() = " + findMember.getCreatedBy());
         System.out.println("findMember.getLastModifiedBy() = " + findMember.getLastModifiedBy());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void auditingStampedOncePerFlush() {
+        //? 시각을 구할 때마다 1초씩 흐르는 Clock - 같은 시각이면 캐시된 값을 사용한 것
+        try (TickingAuditClock clock = TickingAuditClock.install(Duration.ofSeconds(1))) {
+            // given
+            Member memberA = memberRepository.save(new Member("auditA"));
+            Member memberB = memberRepository.save(new Member("auditB"));
+            Team team = new Team("auditTeam");
+            em.persist(team);
+            em.flush();
+
+            // then
+            //? 같은 flush에서 저장된 엔티티는 등록일이 같고, 같은 트랜잭션이면 등록자도 같다.
+            assertEquals(memberA.getCreatedDate(), memberB.getCreatedDate());
+            assertEquals(memberA.getCreatedDate(), team.getCreatedDate());
+            assertEquals(memberA.getCreatedBy(), memberB.getCreatedBy());
+
+            // when
+            memberA.setAge(10);
+            em.flush();
+
+            // then
+            //? flush가 끝나면 새 시각을 사용
+            assertTrue(memberA.getLastModifiedDate().isAfter(memberA.getCreatedDate()));
+            assertEquals(memberA.getCreatedBy(), memberA.getLastModifiedBy());
+        }
+    }
+
+    @Test
+    public void auditingInRequiresNewTransaction() {
+        try (TickingAuditClock clock = TickingAuditClock.install(Duration.ofSeconds(1))) {
+            TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+            requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+            // given
+            Member outerA = memberRepository.save(new Member("outerA"));
+
+            // when
+            //? 바깥 트랜잭션이 보류된 동안 저장 + flush(커밋)
+            Member inner = requiresNew.execute(status -> memberRepository.save(new Member("inner")));
+            Member outerB = memberRepository.save(new Member("outerB"));
+            em.flush();
+
+            // then
+            //? 안쪽 트랜잭션은 자기 시각/등록자를 사용하고, 바깥 트랜잭션의 시각을 비우지 않는다.
+            assertNotEquals(outerA.getCreatedDate(), inner.getCreatedDate());
+            assertNotEquals(outerA.getCreatedBy(), inner.getCreatedBy());
+            assertEquals(outerA.getCreatedDate(), outerB.getCreatedDate());
+            assertEquals(outerA.getCreatedBy(), outerB.getCreatedBy());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package study.datajpa.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? 크기 계산(nextSize)은 풀 없이 확인할 수 있어서 스프링 컨텍스트 없이 테스트
+class AdaptivePoolSizerTest {
+
+    private final PoolProperties.Adaptive properties = adaptive();
+
+    private static PoolProperties.Adaptive adaptive() {
+        PoolProperties.Adaptive adaptive = new PoolProperties.Adaptive();
+        adaptive.setMinSize(5);
+        adaptive.setMaxSize(40);
+        adaptive.setStep(2);
+        adaptive.setTargetAcquireTime(Duration.ofMillis(5));
+        adaptive.setMaxQueryLatency(Duration.ofMillis(50));
+        return adaptive;
+    }
+
+    @Test
+    public void shrinkWhenQueriesAreSlow() {
+        //? 대기가 있어도 쿼리가 느리면 DB 포화 - 늘리지 않고 줄인다.
+        assertThat(AdaptivePoolSizer.nextSize(properties, 20, 100, 80, 3, 0)).isEqualTo(18);
+    }
+
+    @Test
+    public void growWhenAcquireIsSlowOrThreadsWait() {
+        assertThat(AdaptivePoolSizer.nextSize(properties, 20, 10, 5, 0, 0)).isEqualTo(22);
+        assertThat(AdaptivePoolSizer.nextSize(properties, 20, 0, 5, 1, 0)).isEqualTo(22);
+    }
+
+    @Test
+    public void shrinkByOneWhenHalfIdle() {
+        assertThat(AdaptivePoolSizer.nextSize(properties, 20, 0, 5, 0, 10)).isEqualTo(19);
+        assertThat(AdaptivePoolSizer.nextSize(properties, 20, 0, 5, 0, 9)).isEqualTo(20); // 그대로
+    }
+
+    @Test
+    public void keepWithinMinAndMax() {
+        assertThat(AdaptivePoolSizer.nextSize(properties, 40, 10, 5, 0, 0)).isEqualTo(40);
+        assertThat(AdaptivePoolSizer.nextSize(properties, 39, 10, 5, 0, 0)).isEqualTo(40);
+        assertThat(AdaptivePoolSizer.nextSize(properties, 6, 0, 100, 0, 0)).isEqualTo(5);
+        assertThat(AdaptivePoolSizer.nextSize(properties, 5, 0, 5, 0, 5)).isEqualTo(5);
+    }
+}
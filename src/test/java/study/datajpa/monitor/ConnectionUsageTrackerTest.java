@@ -0,0 +1,35 @@
+package study.datajpa.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? 레포지토리 메소드가 직접 트랜잭션(커넥션)을 시작해야 메소드별로 기록되기 때문에 @Transactional 없이 테스트
+@SpringBootTest
+class ConnectionUsageTrackerTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MeterRegistry registry;
+
+    @Test
+    public void connectionUsagePerRepositoryMethod() {
+        // when
+        memberRepository.findListByUsername("connectionUsage");
+
+        // then
+        Timer acquire = registry.find("repository.connection.acquire")
+                .tag("method", "MemberRepository.findListByUsername").timer();
+        Timer usage = registry.find("repository.connection.usage")
+                .tag("method", "MemberRepository.findListByUsername").timer();
+        assertThat(acquire).isNotNull();
+        assertThat(usage).isNotNull();
+        assertThat(usage.count()).isGreaterThanOrEqualTo(1);
+    }
+}
@@ -0,0 +1,62 @@
+package study.datajpa.monitor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? 같은 스프링 컨텍스트를 쓰는 다른 테스트도 기록을 남기기 때문에 호출 전후 차이로 확인한다.
+@SpringBootTest
+@Transactional
+class RepositoryMetricsTest {
+
+    private static final String METHOD = "MemberRepository.findListByUsername";
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    RepositoryMetricsEndpoint repositoryMetricsEndpoint;
+    @Autowired
+    MeterRegistry registry;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void statementsAndRowsPerRepositoryMethod() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            memberRepository.save(new Member("repositoryMetrics", i));
+        }
+        em.flush(); //? insert가 조회 메소드의 측정값에 섞이지 않도록 미리 flush
+        em.clear();
+        Map<String, Object> before = repositoryMetricsEndpoint.methods().getOrDefault(METHOD, Map.of());
+
+        // when
+        memberRepository.findListByUsername("repositoryMetrics");
+
+        // then
+        Map<String, Object> after = repositoryMetricsEndpoint.methods().get(METHOD);
+        assertThat(after).isNotNull();
+        assertThat(delta(after, before, "invocations")).isEqualTo(1);
+        assertThat(delta(after, before, "statements")).isEqualTo(1);
+        assertThat(delta(after, before, "rows")).isEqualTo(3);
+
+        DistributionSummary rows = registry.find("repository.method.rows").tag("method", METHOD).summary();
+        assertThat(rows).isNotNull();
+        assertThat(rows.max()).isGreaterThanOrEqualTo(3);
+    }
+
+    private static long delta(Map<String, Object> after, Map<String, Object> before, String key) {
+        return (long) after.get(key) - (long) before.getOrDefault(key, 0L);
+    }
+}
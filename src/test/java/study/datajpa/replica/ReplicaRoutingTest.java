@@ -0,0 +1,44 @@
+package study.datajpa.replica;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? 읽기/쓰기 분리는 트랜잭션 단위로 결정되기 때문에 @Transactional 없이 테스트
+//? replica 두 개 모두 로컬 H2(primary와 같은 DB)를 가리키게 해서 라우팅만 확인
+@SpringBootTest(properties = {
+        "datajpa.replica.max-staleness=0s",
+        "datajpa.replica.replicas[0].url=jdbc:h2:tcp://localhost/~/datajpa",
+        "datajpa.replica.replicas[1].url=jdbc:h2:tcp://localhost/~/datajpa"
+})
+@ActiveProfiles("replica")
+class ReplicaRoutingTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    ReplicaPoolDataSource replicaDataSource;
+
+    @Test
+    public void readOnlyTransactionsUseReplica() {
+        // given
+        memberRepository.save(new Member("replicaMember", 10)); // 쓰기 => primary
+        long before = replicaDataSource.getReplicaConnections();
+
+        // when
+        memberRepository.findByUsernameAndAgeGreaterThan("replicaMember", 0); // 읽기 전용 => replica
+        memberRepository.findSliceByAge(10, PageRequest.of(0, 3)); // Slice => replica
+        memberRepository.findLockByUsername("replicaMember"); // 비관적 락 => primary
+        memberRepository.bulkAgePlus(1000); // 벌크 수정 => primary
+
+        // then
+        assertThat(replicaDataSource.getReplicaConnections()).isEqualTo(before + 2);
+        assertThat(replicaDataSource.getHealthyReplicaCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,98 @@
+package study.datajpa.replica;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? 읽기/쓰기 분리는 트랜잭션 단위로 결정되기 때문에 @Transactional 없이 테스트
+@SpringBootTest(properties = {
+        "datajpa.replica.max-staleness=1m",
+        "datajpa.replica.replicas[0].url=jdbc:h2:tcp://localhost/~/datajpa"
+})
+@ActiveProfiles("replica")
+class ReplicaStalenessPolicyTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    ReplicaPoolDataSource replicaDataSource;
+
+    @Test
+    public void onlyWriterThreadReadsFromPrimary() {
+        // given
+        Member member = memberRepository.save(new Member("stalenessMember", 10)); // 이 스레드에서 쓰기
+
+        // when
+        long replicaBefore = replicaDataSource.getReplicaConnections();
+        long primaryBefore = replicaDataSource.getPrimaryFallbacks();
+        memberRepository.findByUsernameAndAgeGreaterThan("stalenessMember", 0); // 쓴 스레드 => primary
+        long writerReplica = replicaDataSource.getReplicaConnections() - replicaBefore;
+        long writerPrimary = replicaDataSource.getPrimaryFallbacks() - primaryBefore;
+
+        long otherBefore = replicaDataSource.getReplicaConnections();
+        CompletableFuture.runAsync(() -> memberRepository.findByUsernameAndAgeGreaterThan("stalenessMember", 0)).join();
+        long otherReplica = replicaDataSource.getReplicaConnections() - otherBefore;
+
+        // then
+        assertThat(writerReplica).isZero();
+        assertThat(writerPrimary).isEqualTo(1);
+        assertThat(otherReplica).isEqualTo(1); //? 다른 스레드는 쓰기가 있어도 replica 사용
+
+        memberRepository.delete(member);
+    }
+
+    @Test
+    public void writerNextRequestReadsFromPrimary() {
+        // given
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        Member member = inRequest(new MockHttpServletRequest(), writeResponse,
+                () -> memberRepository.save(new Member("stalenessRequest", 10)));
+        Cookie lastWrite = writeResponse.getCookie(ReplicaStalenessPolicy.LAST_WRITE_COOKIE);
+
+        // when
+        //? 같은 클라이언트의 다음 요청 - 쿠키로 쓴 시각을 넘겨받는다.
+        MockHttpServletRequest nextRequest = new MockHttpServletRequest();
+        nextRequest.setCookies(lastWrite);
+        long primaryBefore = replicaDataSource.getPrimaryFallbacks();
+        inRequest(nextRequest, new MockHttpServletResponse(),
+                () -> memberRepository.findByUsernameAndAgeGreaterThan("stalenessRequest", 0));
+        long writerPrimary = replicaDataSource.getPrimaryFallbacks() - primaryBefore;
+
+        //? 같은 스레드에서 실행되는 다른 클라이언트의 요청
+        long replicaBefore = replicaDataSource.getReplicaConnections();
+        inRequest(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                () -> memberRepository.findByUsernameAndAgeGreaterThan("stalenessRequest", 0));
+        long otherReplica = replicaDataSource.getReplicaConnections() - replicaBefore;
+
+        // then
+        assertThat(lastWrite).isNotNull();
+        assertThat(writerPrimary).isEqualTo(1);
+        assertThat(otherReplica).isEqualTo(1);
+
+        memberRepository.delete(member);
+    }
+
+    private static <T> T inRequest(MockHttpServletRequest request, MockHttpServletResponse response, Supplier<T> action) {
+        RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            return action.get();
+        } finally {
+            RequestContextHolder.setRequestAttributes(previous);
+        }
+    }
+}
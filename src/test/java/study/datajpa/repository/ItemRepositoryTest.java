@@ -5,6 +5,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import study.datajpa.entity.Item;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -36,4 +38,16 @@ class ItemRepositoryTest {
          */
         itemRepository.save(item);
     }
-}
\ No newline at end of file
+
+    @Test // merge(select 후 저장) 없이 MERGE 문으로 저장/수정
+    public void upsertAll() {
+        List<String> ids = List.of("upsert1", "upsert2", "upsert3");
+
+        assertEquals(2, itemRepository.upsertAll(List.of(new Item("upsert1"), new Item("upsert2"))));
+        //? 이미 있는 upsert1은 중복 키 예외 없이 그대로 두고(수정할 컬럼 없음 - 등록일은 updatable = false) upsert3만 insert
+        assertEquals(1, itemRepository.upsertAll(List.of(new Item("upsert1"), new Item("upsert3"))));
+        assertEquals(3, itemRepository.findAllById(ids).size());
+
+        itemRepository.deleteAllByIdInBatch(ids);
+    }
+}
@@ -3,11 +3,16 @@ package study.datajpa.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.entity.Member;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +31,10 @@ class MemberJpaRepositoryTest {
 
     @Autowired
     MemberJpaRepository memberJpaRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    MemberCountCache memberCountCache;
 
     @Test
     public void testMember() {
@@ -135,4 +144,77 @@ class MemberJpaRepositoryTest {
         // then
         assertThat(resultCount).isEqualTo(3);
     }
-}
\ No newline at end of file
+
+    //? 쓰기 트랜잭션 안에서는 캐시를 거치지 않기 때문에 테스트 트랜잭션 없이 실행 (저장/수정은 각각 커밋됨)
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cachedTotalCount() {
+        // given
+        memberJpaRepository.save(new Member("member1", 77));
+        memberJpaRepository.save(new Member("member2", 77));
+
+        // when
+        long first = memberJpaRepository.cachedTotalCount(77);
+        assertThat(memberCountCache.cache().get("countByAge:77")).isNotNull(); // 캐시됨
+        memberJpaRepository.save(new Member("member3", 77)); // 저장하면(커밋 후) 캐시가 비워진다.
+        long afterSave = memberJpaRepository.cachedTotalCount(77);
+        memberJpaRepository.bulkAgePlus(77); // 벌크 수정도 캐시를 비운다.
+        long afterBulk = memberJpaRepository.cachedTotalCount(77);
+
+        // then
+        assertThat(afterSave).isEqualTo(first + 1);
+        assertThat(afterBulk).isEqualTo(0);
+    }
+
+    //? 다른 트랜잭션(스레드)에서 count가 캐시되는 상황이라 테스트 트랜잭션 없이 실행하고 직접 정리한다.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cachedTotalCountWithConcurrentUncommittedInsert() {
+        // given
+        int age = 7_700;
+        TransactionTemplate writer = new TransactionTemplate(transactionManager);
+        Member member = new Member("countRace", age);
+
+        // when
+        long[] countsDuringWrite = writer.execute(status -> {
+            memberJpaRepository.save(member);
+            memberJpaRepository.totalCount(age); // flush - 커밋 전 insert
+            //? 다른 스레드: 커밋 안된 insert는 보이지 않으니 0을 조회해서 캐시
+            long concurrent = CompletableFuture.supplyAsync(() -> memberJpaRepository.cachedTotalCount(age)).join();
+            //? 쓰기 트랜잭션 안에서는 캐시를 거치지 않고 자기 insert까지 센다.
+            long own = memberJpaRepository.cachedTotalCount(age);
+            return new long[]{concurrent, own};
+        });
+        long afterCommit = memberJpaRepository.cachedTotalCount(age);
+
+        // then
+        assertThat(countsDuringWrite[0]).isEqualTo(0);
+        assertThat(countsDuringWrite[1]).isEqualTo(1);
+        assertThat(afterCommit).isEqualTo(1); //? 커밋 후 비워졌기 때문에 옛날 값(0)이 남지 않음
+
+        writer.executeWithoutResult(status -> memberJpaRepository.delete(memberJpaRepository.find(member.getId())));
+    }
+
+    //? 커밋 전에 miss 난 조회가 커밋 후에 옛날 값을 넣는 경우 - miss 때의 세대 키로 들어가서 다시 읽히지 않아야 한다.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cachedTotalCountStalePutAfterCommit() {
+        // given
+        int age = 7_701;
+        String key = "countByAge:" + age;
+        TransactionTemplate writer = new TransactionTemplate(transactionManager);
+        Cache cache = memberCountCache.cache();
+        Member member = new Member("countPutRace", age);
+
+        // when
+        assertThat(cache.get(key)).isNull(); // 조회: miss => DB에서 0을 읽었다고 가정
+        writer.executeWithoutResult(status -> memberJpaRepository.save(member)); // 커밋 => 캐시 비움
+        cache.put(key, 0L); // 커밋 후에 옛날 값을 넣음
+
+        // then
+        assertThat(cache.get(key)).isNull();
+        assertThat(memberJpaRepository.cachedTotalCount(age)).isEqualTo(1);
+
+        writer.executeWithoutResult(status -> memberJpaRepository.delete(memberJpaRepository.find(member.getId())));
+    }
+}
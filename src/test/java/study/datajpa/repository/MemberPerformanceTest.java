@@ -0,0 +1,186 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.PooledSequenceGenerator;
+import study.datajpa.entity.Team;
+import study.datajpa.monitor.NPlusOneException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//? 실제로 나간 쿼리 수를 세기 위해 하이버네이트 통계를 켜준다.
+//? N+1 감지기는 strict 모드 - 같은 조회 쿼리가 threshold를 넘으면 예외
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "datajpa.nplusone.mode=strict"
+})
+@Transactional
+class MemberPerformanceTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    private Statistics statistics() {
+        return em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void pooledSequence() {
+        // given
+        int count = 200;
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        // when
+        for (int i = 0; i < count; i++) {
+            memberRepository.save(new Member("member" + i, i));
+        }
+        em.flush();
+
+        // then
+        long statements = statistics.getPrepareStatementCount();
+        System.out.println("statements = " + statements);
+
+        //? insert N번 + 시퀀스 조회는 allocation_size 마다 한번 => 저장마다 시퀀스를 조회하면 2N번
+        assertThat(statements).isLessThanOrEqualTo(count + count / PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + 1);
+    }
+
+    @Test
+    public void secondLevelCache() {
+        // given
+        Member member = memberRepository.save(new Member("cached", 10));
+        em.flush();
+        em.clear();
+        memberRepository.findById(member.getId()); // DB에서 조회하면서 2차 캐시에 저장
+        em.clear();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        // when
+        Member findMember = memberRepository.findById(member.getId()).get();
+
+        // then
+        //? 영속성 컨텍스트를 비웠지만 쿼리 없이 2차 캐시에서 가져온다.
+        assertThat(findMember.getUsername()).isEqualTo("cached");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void batchFetchLazyAssociations() {
+        // given
+        int teamCount = 100;
+        int memberCount = 1_000;
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(new Team("traverseTeam" + i));
+        }
+        teamRepository.saveAll(teams);
+        for (int i = 0; i < memberCount; i++) {
+            memberRepository.save(new Member("traverse" + i, i, teams.get(i % teamCount)));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        // when
+        //? 페치 조인 없이 회원만 조회한 뒤 팀 -> 팀의 회원 목록까지 지연로딩으로 탐색
+        List<Member> members = em.createQuery("select m from Member m where m.username like 'traverse%'", Member.class)
+                .getResultList();
+        for (Member member : members) {
+            member.getTeam().getName();
+            member.getTeam().getMembers().size();
+        }
+
+        // then
+        long statements = statistics.getPrepareStatementCount();
+        System.out.println("statements = " + statements);
+
+        //? 회원 조회 1번 + 팀 100개씩 1번 + 팀의 회원 컬렉션 100개씩 1번 (N+1이면 200번 이상)
+        assertThat(members).hasSize(memberCount);
+        assertThat(statements).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    public void detectNPlusOne() {
+        // given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(memberRepository.save(new Member("nplusone" + i, i)).getId());
+        }
+        em.flush();
+        em.clear();
+
+        // when & then
+        //? 반복문 안에서 한건씩 조회 => 같은 쿼리가 threshold(10)를 넘는 순간 호출 위치와 함께 예외
+        assertThatThrownBy(() -> ids.forEach(memberRepository::findById))
+                .satisfies(e -> assertThat(NestedExceptionUtils.getMostSpecificCause(e))
+                        .isInstanceOf(NPlusOneException.class)
+                        .hasMessageContaining("MemberPerformanceTest"));
+    }
+
+    //? 속도 비교는 BatchInsertBenchmark(src/jmh)에서 측정한다.
+    @Test
+    public void saveAllInBatchKeepsCallerEntitiesManaged() {
+        // given
+        int count = 250; // batch_size(100)를 넘겨서 중간 flush까지 확인
+        long before = memberRepository.count();
+        Team team = teamRepository.save(new Team("batchTeam"));
+
+        // when
+        List<Member> members = createMembers("batch", count);
+        memberRepository.saveAllInBatch(members);
+        team.setName("batchTeamChanged"); //? 호출한 쪽 트랜잭션의 엔티티 - 계속 변경감지 대상이어야 한다.
+        em.flush();
+        em.clear();
+
+        // then
+        assertThat(memberRepository.count() - before).isEqualTo(count);
+        assertThat(em.contains(members.get(0))).isFalse();
+        assertThat(teamRepository.findById(team.getId()).get().getName()).isEqualTo("batchTeamChanged");
+    }
+
+    @Test
+    public void saveAllInBatchMergesExistingMembers() {
+        // given
+        Member existing = memberRepository.save(new Member("batchExisting", 10));
+        em.flush();
+        em.clear();
+        existing.setAge(20); // 준영속 회원 수정
+
+        // when
+        memberRepository.saveAllInBatch(List.of(existing, new Member("batchNew", 10)));
+        em.clear();
+
+        // then
+        assertThat(memberRepository.findById(existing.getId()).get().getAge()).isEqualTo(20);
+        assertThat(memberRepository.findListByUsername("batchNew")).hasSize(1);
+    }
+
+    private List<Member> createMembers(String prefix, int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            members.add(new Member(prefix + i, i % 100));
+        }
+        return members;
+    }
+}
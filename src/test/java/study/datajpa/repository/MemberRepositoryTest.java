@@ -2,6 +2,7 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -13,10 +14,13 @@ import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
@@ -28,6 +32,10 @@ class MemberRepositoryTest {
     MemberRepository memberRepository;
     @Autowired
     TeamRepository teamRepository;
+    @Autowired
+    MemberPageQueries memberPageQueries;
+    @Autowired
+    ExampleQueryExecutor exampleQueryExecutor;
     @PersistenceContext
     EntityManager em;
 
@@ -435,4 +443,196 @@ class MemberRepositoryTest {
             System.out.println("memberProjection = " + memberProjection.getTeamName());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void streamAllMemberDto() {
+        // given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("m1", 10, teamA));
+        memberRepository.save(new Member("m2", 20));
+
+        em.flush();
+        em.clear();
+
+        // when
+        //? 스트림은 커서를 잡고 있기 때문에 try-with-resources로 닫아줘야 한다.
+        List<MemberDto> result;
+        try (Stream<MemberDto> stream = memberRepository.streamAllMemberDto()) {
+            result = stream.toList();
+        }
+
+        // then
+        assertThat(result).extracting(MemberDto::getUsername).contains("m1", "m2");
+    }
+
+    @Test
+    public void keysetPaging() {
+        // given
+        //? 다른 테스트 데이터보다 앞에 오도록 음수 나이를 사용
+        memberRepository.save(new Member("member1", -50));
+        memberRepository.save(new Member("member2", -49));
+        memberRepository.save(new Member("member3", -48));
+        memberRepository.save(new Member("member4", -47));
+        memberRepository.save(new Member("member5", -46));
+
+        // when
+        //? 첫 페이지를 조회하고 마지막 회원으로 만든 커서 토큰으로 다음 페이지를 조회
+        Slice<Member> first = memberRepository.findByCursor(MemberCursor.first(MemberCursor.SortKey.AGE), 3);
+        Member last = first.getContent().get(first.getNumberOfElements() - 1);
+        String token = MemberCursor.after(last, MemberCursor.SortKey.AGE).encode();
+        Slice<Member> second = memberRepository.findByCursor(MemberCursor.decode(token), 2);
+
+        // then
+        assertThat(first.getContent()).extracting(Member::getAge).containsExactly(-50, -49, -48);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(Member::getAge).containsExactly(-47, -46);
+    }
+
+    @Test
+    @Rollback //? username이 null인 회원이 다른 테스트에 남지 않도록
+    public void keysetPagingWithNullUsername() {
+        // given
+        Member null1 = memberRepository.save(new Member(null, 10));
+        Member null2 = memberRepository.save(new Member(null, 11));
+        Member named = memberRepository.save(new Member("!cursor", 12)); //? "null"보다 앞에 정렬되는 이름
+        List<Long> ids = List.of(null1.getId(), null2.getId(), named.getId());
+
+        // when
+        //? 다른 테스트가 커밋한 회원도 섞여 있기 때문에 "!cursor"가 나올 때까지 넘기면서 이 테스트의 회원만 모은다.
+        List<Long> found = new ArrayList<>();
+        MemberCursor cursor = MemberCursor.first(MemberCursor.SortKey.USERNAME);
+        while (!found.contains(named.getId())) {
+            Slice<Member> slice = memberRepository.findByCursor(cursor, 2);
+            slice.getContent().stream().map(Member::getId).filter(ids::contains).forEach(found::add);
+            if (!slice.hasNext()) {
+                break;
+            }
+            Member last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            cursor = MemberCursor.decode(MemberCursor.after(last, MemberCursor.SortKey.USERNAME).encode());
+        }
+
+        // then
+        //? null은 맨 앞(식별자 순), 다음 페이지는 문자열 "null"이 아니라 null 구간 다음부터 - 빠지거나 중복된 회원 없음
+        assertThat(found).containsExactly(null1.getId(), null2.getId(), named.getId());
+    }
+
+    @Test
+    public void invalidCursor() {
+        assertThatThrownBy(() -> MemberCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MemberCursor.sortKey("team")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void parallelCountPaging() {
+        // given
+        memberRepository.save(new Member("member1", -60));
+        memberRepository.save(new Member("member2", -60));
+        memberRepository.save(new Member("member3", -60));
+
+        // when
+        //? 마지막 페이지는 count 결과를 기다리지 않고 total을 계산한다.
+        //? (count는 다른 커넥션에서 실행되기 때문에 이 테스트 트랜잭션의 미커밋 데이터를 보지 못함)
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "username"));
+        Slice<Member> result = memberPageQueries.findByAge(-60, pageRequest);
+
+        // then
+        assertThat(result).isInstanceOf(Page.class);
+        assertThat(((Page<Member>) result).getTotalElements()).isEqualTo(3);
+        assertThat(result.getContent()).extracting(Member::getUsername)
+                .containsExactly("member3", "member2", "member1");
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    public void compiledProjections() {
+        // given
+        Team team = new Team("projectionTeam");
+        em.persist(team);
+        em.persist(new Member("projectionMember", 33, team));
+        em.persist(new Member("projectionMember", 34));
+        em.flush();
+        em.clear();
+
+        // when
+        List<UsernameOnly> open = memberRepository.findProjectedByUsername("projectionMember", UsernameOnly.class);
+        List<UsernameOnlyDto> dto = memberRepository.findProjectedByUsername("projectionMember", UsernameOnlyDto.class);
+        List<NestedClosedProjections> nested = memberRepository.findProjectedByUsername("projectionMember", NestedClosedProjections.class);
+        List<MemberProjection> flat = memberRepository.findProjectedByUsername("projectionMember", MemberProjection.class);
+
+        // then
+        //? 스프링 데이터 프로젝션과 같은 값 - 팀이 없는 회원은 중첩 프로젝션이 null
+        assertThat(open).extracting(UsernameOnly::getUsername)
+                .containsExactlyInAnyOrder("projectionMember 33", "projectionMember 34");
+        assertThat(dto).extracting(UsernameOnlyDto::getUsername).containsOnly("projectionMember");
+        assertThat(nested).extracting(p -> p.getTeam() == null ? null : p.getTeam().getName())
+                .containsExactlyInAnyOrder("projectionTeam", null);
+        assertThat(flat).extracting(MemberProjection::getTeamName)
+                .containsExactlyInAnyOrder("projectionTeam", null);
+        //? 엔티티를 조회하지 않았기 때문에 영속성 컨텍스트는 비어있다.
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    public void searchByShape() {
+        // given
+        Team team = new Team("searchTeam");
+        teamRepository.save(team);
+        memberRepository.save(new Member("searchMember1", 10, team));
+        memberRepository.save(new Member("searchMember2", 20, team));
+        em.flush();
+        em.clear();
+
+        // when
+        MemberSearch both = new MemberSearch("searchMember1", "searchTeam");
+        MemberSearch teamOnly = new MemberSearch("", "searchTeam");
+
+        // then
+        //? 빈 조건은 빠지고 조건 조합(shape)이 같으면 같은 JPQL
+        assertThat(teamOnly.shape()).containsExactly(MemberSearch.Criterion.TEAM_NAME);
+        assertThat(new MemberSearch(null, "otherTeam").jpql()).isSameAs(teamOnly.jpql());
+        assertThat(memberRepository.search(both)).extracting(Member::getUsername).containsExactly("searchMember1");
+        assertThat(memberRepository.search(teamOnly)).extracting(Member::getUsername)
+                .containsExactlyInAnyOrder("searchMember1", "searchMember2");
+        assertThat(memberRepository.findAll(teamOnly.toSpecification())).hasSize(2);
+    }
+
+    @Test
+    public void queryByExampleFastPath() {
+        // given
+        Team team = new Team("qbeTeam");
+        teamRepository.save(team);
+        memberRepository.save(new Member("qbeMember1", 10, team));
+        memberRepository.save(new Member("qbeMember2", 20));
+        em.flush();
+        em.clear();
+
+        // when
+        //? 팀 probe가 없으면 조인하지 않기 때문에 팀이 없는 회원도 조회된다.
+        Member byUsername = new Member("qbeMember");
+        ExampleMatcher startsWith = ExampleMatcher.matching()
+                .withIgnorePaths("age")
+                .withStringMatcher(ExampleMatcher.StringMatcher.STARTING);
+        List<Member> withoutTeam = memberRepository.findAllByExample(Example.of(byUsername, startsWith));
+
+        Member byTeam = new Member("qbeMember1");
+        byTeam.setTeam(new Team("qbeTeam"));
+        List<Member> withTeam = memberRepository.findAllByExample(
+                Example.of(byTeam, ExampleMatcher.matching().withIgnorePaths("age")));
+
+        // then
+        assertThat(withoutTeam).extracting(Member::getUsername).containsExactlyInAnyOrder("qbeMember1", "qbeMember2");
+        assertThat(withTeam).extracting(Member::getUsername).containsExactly("qbeMember1");
+
+        //? 인덱스 없는 team.name에 contains => reject 정책이면 예외
+        ExampleQueryExecutor strict = new ExampleQueryExecutor(em, ExampleQueryExecutor.NonSargablePolicy.REJECT);
+        Member probe = new Member(null);
+        probe.setTeam(new Team("qbe"));
+        ExampleMatcher contains = ExampleMatcher.matching()
+                .withIgnorePaths("age")
+                .withMatcher("team.name", ExampleMatcher.GenericPropertyMatchers.contains());
+        assertThatThrownBy(() -> strict.findAll(Example.of(probe, contains)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(exampleQueryExecutor.findAll(Example.of(probe, contains))).hasSize(1); // warn 정책은 경고만
+    }
+}
@@ -0,0 +1,61 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? 다른 트랜잭션이 먼저 커밋해야 충돌이 나기 때문에 @Transactional 없이 테스트하고 직접 정리한다.
+@SpringBootTest
+class OptimisticRetryExecutorTest {
+
+    @Autowired
+    OptimisticRetryExecutor optimisticRetryExecutor;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    Member member;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteById(member.getId());
+    }
+
+    @Test
+    public void retryOnVersionConflict() {
+        // given
+        member = memberRepository.save(new Member("optimistic", 7000));
+        Long id = member.getId();
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        Integer age = optimisticRetryExecutor.execute(status -> {
+            Member found = memberRepository.findById(id).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                //? 첫번째 실행 중에 다른 트랜잭션이 같은 회원을 먼저 수정하고 커밋 => version 불일치
+                other.executeWithoutResult(s -> memberRepository.findById(id).orElseThrow().setAge(7100));
+            }
+            found.setAge(found.getAge() + 1);
+            return found.getAge();
+        });
+
+        // then
+        Member result = memberRepository.findById(id).orElseThrow();
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(age).isEqualTo(7101);
+        assertThat(result.getAge()).isEqualTo(7101); //? 다른 트랜잭션의 수정을 덮어쓰지 않음
+        assertThat(result.getVersion()).isEqualTo(member.getVersion() + 2);
+    }
+}
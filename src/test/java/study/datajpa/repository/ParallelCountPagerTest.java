@@ -0,0 +1,87 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? count는 별도 트랜잭션(다른 스레드)에서 실행되기 때문에 @Transactional 없이 테스트하고 직접 정리한다.
+@SpringBootTest(properties = "datajpa.paging.parallel-count-timeout=1s")
+class ParallelCountPagerTest {
+
+    @Autowired
+    ParallelCountPager pager;
+    @Autowired
+    MemberPageQueries memberPageQueries;
+    @Autowired
+    MemberRepository memberRepository;
+
+    List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(members);
+    }
+
+    @Test
+    public void parallelCount() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            members.add(memberRepository.save(new Member("parallel" + i, 8800)));
+        }
+
+        // when
+        //? 첫 페이지가 가득 차서(다음 페이지 있음) count 결과를 사용한다.
+        Slice<Member> result = memberPageQueries.findByAge(8800, PageRequest.of(0, 2));
+
+        // then
+        assertThat(result).isInstanceOf(Page.class);
+        assertThat(((Page<Member>) result).getTotalElements()).isEqualTo(5);
+        assertThat(result.getContent()).hasSize(2);
+    }
+
+    @Test
+    public void slowCountFallsBackToSlice() throws InterruptedException {
+        // given
+        Pageable pageable = PageRequest.of(0, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        try {
+            // when
+            //? 제한 시간(1s)이 지나도 끝나지 않는 count
+            Slice<String> result = pager.page(pageable,
+                    p -> new SliceImpl<>(List.of("a", "b"), p, true),
+                    () -> {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            cancelled.countDown(); // 취소되면서 인터럽트
+                            Thread.currentThread().interrupt();
+                        }
+                        return 0L;
+                    });
+
+            // then
+            assertThat(result).isNotInstanceOf(Page.class);
+            assertThat(result.getContent()).containsExactly("a", "b");
+            assertThat(result.hasNext()).isTrue();
+            assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+        }
+    }
+}
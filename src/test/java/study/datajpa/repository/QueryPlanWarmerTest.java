@@ -0,0 +1,76 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.monitor.QueryPlanCacheEndpoint;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? 쿼리 플랜 캐시 hit/miss는 하이버네이트 통계로 확인한다.
+//? 같은 설정의 다른 테스트가 먼저 쿼리를 실행했을 수 있기 때문에 실행 전후 차이로 확인한다.
+@SpringBootTest(properties = "datajpa.statistics.enabled=true")
+@Transactional
+class QueryPlanWarmerTest {
+
+    private static final String COUNT = "select count(m) from Member m";
+    private static final String TOTAL_COUNT = "select count(m) from Member m where m.age = :age";
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    QueryPlanCacheEndpoint queryPlanCacheEndpoint;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void memberJpaRepositoryQueriesAreWarmedUp() {
+        // given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertThat(MemberJpaRepository.QUERIES).contains(COUNT, TOTAL_COUNT);
+        QueryStatistics count = statistics.getQueryStatistics(COUNT);
+        QueryStatistics totalCount = statistics.getQueryStatistics(TOTAL_COUNT);
+        long countMisses = count.getPlanCacheMissCount();
+        long countHits = count.getPlanCacheHitCount();
+        long totalCountMisses = totalCount.getPlanCacheMissCount();
+        long totalCountHits = totalCount.getPlanCacheHitCount();
+
+        // when
+        memberJpaRepository.count();
+        memberJpaRepository.totalCount(10);
+
+        // then
+        //? 시작할 때 QueryPlanWarmer가 파싱해뒀기 때문에 처음 실행해도 miss 없이 hit
+        assertThat(count.getPlanCacheMissCount()).isEqualTo(countMisses);
+        assertThat(count.getPlanCacheHitCount()).isEqualTo(countHits + 1);
+        assertThat(totalCount.getPlanCacheMissCount()).isEqualTo(totalCountMisses);
+        assertThat(totalCount.getPlanCacheHitCount()).isEqualTo(totalCountHits + 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void queryPlanEndpoint() {
+        // given
+        memberJpaRepository.totalCount(10);
+
+        // when
+        Map<String, Object> plans = queryPlanCacheEndpoint.plans();
+
+        // then
+        assertThat(plans).containsEntry("statisticsEnabled", true);
+        assertThat(plans).containsKeys("maxSize", "hits", "misses", "hitRatio", "queries");
+        assertThat((long) plans.get("hits")).isPositive();
+        Map<String, Map<String, Object>> queries = (Map<String, Map<String, Object>>) plans.get("queries");
+        assertThat(queries).containsKey(TOTAL_COUNT);
+        assertThat(queries.get(TOTAL_COUNT))
+                .containsKeys("hits", "misses", "repeatedMisses", "executions", "avgTimeMs");
+        assertThat((long) queries.get(TOTAL_COUNT).get("executions")).isPositive();
+    }
+}
@@ -0,0 +1,53 @@
+package study.datajpa.shard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? 메모리 H2 4개(application-sharding.yml)에 나눠 저장 - 샤드마다 트랜잭션을 따로 쓰기 때문에 @Transactional 없이 테스트
+@SpringBootTest
+@ActiveProfiles("sharding")
+class ShardedMemberRepositoryTest {
+
+    @Autowired
+    ShardedMemberRepository shardedMemberRepository;
+    @Autowired
+    ShardTemplate shardTemplate;
+
+    @Test
+    public void scatterGather() {
+        // given
+        //? 팀 4개는 샤드 0~3에 하나씩, 회원은 팀의 샤드에 저장된다.
+        for (int i = 0; i < 4; i++) {
+            Team team = shardedMemberRepository.saveTeam(new Team("shardTeam" + i));
+            assertThat(shardTemplate.shardOfTeam(team.getId())).isEqualTo(i);
+
+            shardedMemberRepository.saveMember(new Member("shard" + i + "-a", 100 + i, team));
+            shardedMemberRepository.saveMember(new Member("shard" + i + "-b", 200 + i, team));
+        }
+
+        // when
+        Page<Member> page = shardedMemberRepository.findAll(PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "age")));
+        List<Member> byNames = shardedMemberRepository.findByNames(List.of("shard0-a", "shard3-b"));
+        List<MemberDto> dtos = shardedMemberRepository.findMemberDto();
+
+        // then
+        //? 나이 내림차순: 203, 202, 201 | 200, 103, 102 | 101, 100
+        assertThat(page.getTotalElements()).isEqualTo(8);
+        assertThat(page.getContent()).extracting(Member::getAge).containsExactly(200, 103, 102);
+        assertThat(byNames).extracting(Member::getUsername).containsExactlyInAnyOrder("shard0-a", "shard3-b");
+        assertThat(dtos).hasSize(8);
+        assertThat(dtos).extracting(MemberDto::getTeamName).contains("shardTeam0", "shardTeam3");
+    }
+}